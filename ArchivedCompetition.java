@@ -0,0 +1,104 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Scanner;
+
+/**
+ * The ArchivedCompetition class is the in-memory summary of a completed competition whose data
+ * is kept in a CompetitionArchive. It only holds the id, name, number of entries, number of
+ * winning entries and total prizes, which is all report() needs. Entries and winners stay in the
+ * archive and are paged back in with load() when they are asked for; when the session is saved,
+ * the section of the competition is copied into the snapshot file as it is.
+ *
+ * A completed competition cannot take entries or draw winners again, so addEntries,
+ * createEntries and drawWinners are not supported.
+ *
+ * @see CompetitionArchive
+ */
+public class ArchivedCompetition extends Competition {
+    /*
+    @param archive CompetitionArchive which stores the competition
+    @param offset  position of the competition section in the archive
+    @param length  length of the competition section
+    @param type    'L' for LuckyNumbersCompetition and 'R' for RandomPickCompetition
+     */
+    private static final long serialVersionUID = -5226974159656015234L;
+
+    private final transient CompetitionArchive archive;
+    private final long offset;
+    private final long length;
+    private final char type;
+
+    /**
+     * ArchivedCompetition Constructor copies the summary of a competition.
+     *
+     * @param archive CompetitionArchive which stores the competition
+     * @param competition Competition object which has been archived
+     * @param offset position of the competition section in the archive
+     * @param length length of the competition section
+     */
+    ArchivedCompetition(CompetitionArchive archive, Competition competition,
+                        long offset, long length) {
+        this.archive = archive;
+        this.offset = offset;
+        this.length = length;
+        this.type = competition instanceof LuckyNumbersCompetition ? 'L' : 'R';
+        this.setId(competition.getId());
+        this.setName(competition.getName());
+        this.setEntryID(competition.getEntryID());
+        this.setStartID(competition.getStartID());
+        this.setWinnerNum(competition.getWinnerNum());
+        this.setTotalPrizes(competition.getTotalPrizes());
+        //only mark the competition as completed, the winner entry itself stays in the archive
+        this.setWinnerEntry(new int[0]);
+    }
+
+    public char getType() {
+        return type;
+    }
+
+    /**
+     * This method returns the section of this competition.
+     *
+     * @return read-only buffer of the section
+     * @exception IOException archive cannot be read
+     */
+    ByteBuffer section() throws IOException {
+        return archive.section(offset, length);
+    }
+
+    /**
+     * This method pages the whole competition back in from the archive.
+     *
+     * @return the LuckyNumbersCompetition or RandomPickCompetition object which was archived
+     * @exception IOException archive cannot be read
+     * @exception DataFormatException the section is incorrect
+     */
+    public Competition load() throws IOException, DataFormatException {
+        return new SnapshotReader(this.section()).next();
+    }
+
+    /**
+     * This method is not supported because the competition is completed.
+     */
+    @Override
+    public void addEntries(Scanner keyboard, DataProvider dataProvider, String billID,
+                           double totalAmount, char mode) {
+        throw new IllegalStateException("The competition has been completed.");
+    }
+
+    /**
+     * This method is not supported because the competition is completed.
+     */
+    @Override
+    public int createEntries(String billID, int entryNum, long[] manualMasks, char mode) {
+        throw new IllegalStateException("The competition has been completed.");
+    }
+
+    /**
+     * This method is not supported because the competition is completed.
+     */
+    @Override
+    public void drawWinners(DataProvider dataProvider, char mode) {
+        throw new IllegalStateException("The competition has been completed.");
+    }
+}
@@ -0,0 +1,314 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * The BatchIngestor class adds entries to a competition without asking the user, e.g. to load
+ * the bills of a whole day at once. It reads a file (or the standard input) line by line:
+ * 1.a line with one token is a Bill ID.
+ * 2.a line with several numbers is a manual entry of the Bill ID above it; there may be as many
+ *   manual entry lines as the bill has entries, the rest of its entries are auto entries.
+ * 3.blank lines and lines starting with '#' are skipped.
+ * Every bill goes through CompetitionEngine.submit, so it is checked and claimed the same way as
+ * an entry typed into SimpleCompetitions. A rejected bill is reported with its line number and
+ * the ingestion carries on with the next one; the reports are collected in an OutputSink and
+ * written in blocks, so a file with many bad bills is not slowed down by the console.
+ *
+ * @see CompetitionEngine
+ */
+public class BatchIngestor {
+    /*
+    @param BUFFER_SIZE   constant represents size of the read buffer in chars
+    @param NAME          constant represents name of the competition of a batch run
+    @param MAX_MANUAL    constant represents most manual entry lines kept for one bill
+
+    @param engine        CompetitionEngine which holds the competition
+    @param competitionId identifier of the competition which takes the entries
+    @param log           OutputSink which takes the reports of rejected bills
+
+    @param billsRead     number of Bill ID lines read
+    @param billsAccepted number of bills whose entries were added
+    @param billsRejected number of bills which were rejected
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String NAME = "Batch Competition";
+    private static final int MAX_MANUAL = 1 << 16;
+
+    private final CompetitionEngine engine;
+    private final int competitionId;
+    private final OutputSink log;
+
+    private int billsRead = 0;
+    private int billsAccepted = 0;
+    private int billsRejected = 0;
+
+    /**
+     * BatchIngestor Constructor, rejected bills are reported on the console.
+     *
+     * @param engine CompetitionEngine which holds the competition
+     * @param competitionId identifier of an active competition in engine
+     */
+    public BatchIngestor(CompetitionEngine engine, int competitionId) {
+        this(engine, competitionId, OutputSink.console());
+    }
+
+    /**
+     * Overload Constructor.
+     *
+     * @param engine CompetitionEngine which holds the competition
+     * @param competitionId identifier of an active competition in engine
+     * @param log OutputSink which takes the reports of rejected bills
+     */
+    public BatchIngestor(CompetitionEngine engine, int competitionId, OutputSink log) {
+        this.engine = engine;
+        this.competitionId = competitionId;
+        this.log = log;
+    }
+
+    //getters
+    public int getBillsRead() {
+        return billsRead;
+    }
+
+    public int getBillsAccepted() {
+        return billsAccepted;
+    }
+
+    public int getBillsRejected() {
+        return billsRejected;
+    }
+
+    /**
+     * This method reads bills and their manual entries and adds them to the competition. The
+     * manual entries of a bill are collected until the next Bill ID line (or the end of input),
+     * then the bill is submitted. The reports of rejected bills are flushed once at the end.
+     *
+     * @param in Reader of the bills
+     * @exception IOException input cannot be read
+     */
+    public void ingest(Reader in) throws IOException {
+        try {
+            this.readBills(in);
+        } finally {
+            log.flush();
+        }
+    }
+
+    /**
+     * This method does the work of ingest.
+     *
+     * @param in Reader of the bills
+     * @exception IOException input cannot be read
+     */
+    private void readBills(Reader in) throws IOException {
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in :
+                new BufferedReader(in, BUFFER_SIZE);
+        String billID = null;
+        int billLine = 0;
+        long[] manualMasks = new long[8];
+        int manualCount = 0;
+        String problem = null; //problem found in a manual entry line of the current bill
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber += 1;
+            line = line.trim();
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+
+            if (line.indexOf(' ') < 0 && line.indexOf('\t') < 0) {
+                //a new bill, so the one before it is complete
+                if (billID != null) {
+                    this.submit(billID, billLine, manualMasks, manualCount, problem);
+                }
+                billID = line;
+                billLine = lineNumber;
+                manualCount = 0;
+                problem = null;
+                billsRead += 1;
+            } else if (billID == null) {
+                this.reject(lineNumber, "Manual numbers must follow a Bill ID.");
+            } else if (problem == null) {
+                long mask = this.parseNumbers(line);
+                if (mask < 0) {
+                    problem = String.format("Invalid numbers at line %d.", lineNumber);
+                } else if (manualCount == MAX_MANUAL) {
+                    problem = "Too many manual entries.";
+                } else {
+                    if (manualCount == manualMasks.length) {
+                        manualMasks = Arrays.copyOf(manualMasks, manualCount * 2);
+                    }
+                    manualMasks[manualCount] = mask;
+                    manualCount += 1;
+                }
+            }
+        }
+        if (billID != null) {
+            this.submit(billID, billLine, manualMasks, manualCount, problem);
+        }
+    }
+
+    /**
+     * This method submits one bill with its manual entries to the engine.
+     *
+     * @param billID Bill ID read from the input
+     * @param lineNumber line of the Bill ID
+     * @param manualMasks numbers bitmasks of the manual entries
+     * @param manualCount number of manual entries in manualMasks
+     * @param problem problem found in a manual entry line, or null
+     */
+    private void submit(String billID, int lineNumber, long[] manualMasks, int manualCount,
+                        String problem) {
+        if (problem != null) {
+            this.reject(lineNumber, problem);
+            return;
+        }
+        try {
+            engine.submit(competitionId, billID, Arrays.copyOf(manualMasks, manualCount));
+            billsAccepted += 1;
+        } catch (EntryRejectedException e) {
+            this.reject(lineNumber, e.getMessage());
+        }
+    }
+
+    /**
+     * This method reports a rejected bill.
+     *
+     * @param lineNumber line of the rejected bill
+     * @param message reason of the rejection
+     */
+    private void reject(int lineNumber, String message) {
+        billsRejected += 1;
+        log.print("Line ").print(lineNumber).print(": ").print(message).print("\n");
+    }
+
+    /**
+     * This method converts a line of numbers separated by whitespace into a numbers bitmask.
+     * Every number must be in range of 1 to 35; whether there are 7 different numbers is checked
+     * by CompetitionEngine.
+     *
+     * @param line trimmed line of numbers
+     * @return numbers bitmask, or -1 if the line has something else than numbers in range
+     */
+    private long parseNumbers(String line) {
+        long mask = 0L;
+        int number = -1;
+        for (int i = 0; i <= line.length(); i++) {
+            char c = i < line.length() ? line.charAt(i) : ' ';
+            if (c >= '0' && c <= '9') {
+                number = (number < 0 ? 0 : number * 10) + (c - '0');
+                if (number > 35) {
+                    return -1;
+                }
+            } else if (c == ' ' || c == '\t') {
+                if (number == 0) {
+                    return -1;
+                } else if (number > 0) {
+                    mask |= 1L << (number - 1);
+                    number = -1;
+                }
+            } else {
+                return -1;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Main program which adds a file of bills to a new competition and draws its winners.
+     * Usage: BatchIngestor memberFile billFile entryFile snapshotFile type(L/R) [mode(T/N)]
+     * [winnerFile]
+     * The entry file "-" reads the standard input. The winners are printed to the console, or
+     * written to winnerFile if it is given ("-" throws them away).
+     * The competitions are kept in snapshotFile, the same file SimpleCompetitions saves and
+     * loads: if it exists, the new competition gets the next Competition ID and the mode of the
+     * file is used instead of the mode argument. Once the winners are drawn, the competition is
+     * added to the snapshot file and the claimed bills are marked as used in the bill file, so a
+     * bill produces entries only once and the entries it produced are kept.
+     *
+     * @param args main program arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 5) {
+            System.out.println("Usage: BatchIngestor memberFile billFile entryFile snapshotFile " +
+                    "type(L/R) [mode(T/N)] [winnerFile]");
+            return;
+        }
+        String snapshotFile = args[3];
+        char type = args[4].toUpperCase().charAt(0);
+        char mode = args.length > 5 ? args[5].toUpperCase().charAt(0) : 'N';
+        if ((type != 'L' && type != 'R') || (mode != 'T' && mode != 'N')) {
+            System.out.println("Invalid competition type or mode!");
+            return;
+        }
+
+        SimpleCompetitions sc = new SimpleCompetitions();
+        sc.setMode(mode);
+        if (new File(snapshotFile).exists()) {
+            try {
+                sc = SimpleCompetitions.readFile(snapshotFile);
+            } catch (Exception e) {
+                System.out.println("Something wrong happened while loading existing " +
+                        "competitions from the file.");
+                System.exit(0);
+            }
+        }
+
+        DataProvider dataProvider = new DataProvider(args[0], args[1]);
+        Competition competition = type == 'L' ? new LuckyNumbersCompetition() :
+                new RandomPickCompetition();
+        competition.setId(sc.getCompetitionNum() + 1);
+        competition.setName(NAME);
+        CompetitionEngine engine = new CompetitionEngine(dataProvider, sc.getMode());
+        engine.register(competition);
+
+        BatchIngestor ingestor = new BatchIngestor(engine, competition.getId());
+        try (Reader in = args[2].equals("-") ? new InputStreamReader(System.in) :
+                new FileReader(args[2])) {
+            ingestor.ingest(in);
+        } catch (IOException e) {
+            System.out.println("Something wrong happened while reading the entry file.");
+            System.exit(0);
+        }
+        System.out.printf("Bills read: %d, accepted: %d, rejected: %d, entries added: %d\n",
+                ingestor.getBillsRead(), ingestor.getBillsAccepted(),
+                ingestor.getBillsRejected(), competition.getEntryID());
+        if (competition instanceof LuckyNumbersCompetition) {
+            CombinationCodec.DuplicateCounter duplicates =
+                    ((LuckyNumbersCompetition) competition).countDuplicatePicks();
+            System.out.printf("Entries with numbers picked before: %d (%d different numbers)\n",
+                    duplicates.getDuplicates(), duplicates.getRepeatedSets());
+            PrizeLiability liability = ((LuckyNumbersCompetition) competition).estimateLiability();
+            System.out.printf("Expected prizes: %.0f, if the most picked numbers %s are drawn: " +
+                    "%d\n", liability.getExpectedTotalPrize(),
+                    Arrays.toString(liability.getHotNumbers()), liability.getHotTotalPrize());
+        }
+
+        if (competition.getEntryID() > 0) {
+            try (OutputSink out = args.length < 7 ? OutputSink.console() :
+                    args[6].equals("-") ? OutputSink.discard() : OutputSink.file(args[6])) {
+                competition.setOutput(out);
+                engine.drawWinners(competition.getId());
+            } catch (IOException e) {
+                System.out.println("Something wrong happened while writing the winner file.");
+                System.exit(0);
+            }
+            try {
+                sc.addCompletedCompetition(competition);
+                sc.saveFile(snapshotFile);
+                dataProvider.updateBillFile();
+                System.out.printf("Competition %d has been saved to %s.\n", competition.getId(),
+                        snapshotFile);
+            } catch (IOException e) {
+                System.out.println("Something wrong happened while saving the competition.");
+                System.exit(0);
+            }
+        }
+    }
+}
@@ -2,59 +2,99 @@
  * This Bill class provides basic structure of a Bill.
  * Each bill has a bill identifier, identifier of the member who paid this bill, total amount of
  * this bill and status of this bill (whether this bill has been used in previous competitions).
+ *
+ * A Bill is a flyweight view of one fixed-width record in the RecordDirectory of DataProvider,
+ * which keeps the bills outside the Java heap. The record layout is:
+ * 1.bytes 0 to 3: numeric Bill ID.
+ * 2.bytes 4 to 7: numeric Member ID, NO_MEMBER if the bill has no member.
+ * 3.bytes 8 to 15: total amount.
+ * 4.bytes 16 to 23: position of the bill status in the bill file.
+ * 5.bytes 24 to 27: number of the line of the bill in the bill file.
+ * 6.byte 28: 1 if the bill has been used, 0 otherwise.
+ *
+ * @see RecordDirectory
  */
 public class Bill {
     /*
-    @param id          bill identifier
-    @param billId      Bill ID of a bill
-    @param memberId    Member ID of a bill
-    @param totalAmount total amount of a bill
-    @param usedOrNot   bill status
+    @param NO_MEMBER     constant represents numeric Member ID of a bill without member
+    @param MEMBER        constant represents position of the Member ID in a record
+    @param TOTAL_AMOUNT  constant represents position of the total amount in a record
+    @param STATUS_OFFSET constant represents position of the status position in a record
+    @param LINE          constant represents position of the line number in a record
+    @param USED          constant represents position of the bill status in a record
+    @param RECORD_BYTES  constant represents width of a record
+
+    @param directory     RecordDirectory which keeps the record
+    @param slot          slot of the record
      */
-    private int id;
-    private String billId;
-    private String memberId;
-    private double totalAmount;
-    private boolean usedOrNot;
+    public static final int NO_MEMBER = -1;
+    static final int MEMBER = 4;
+    static final int TOTAL_AMOUNT = 8;
+    static final int STATUS_OFFSET = 16;
+    static final int LINE = 24;
+    static final int USED = 28;
+    static final int RECORD_BYTES = 32;
+
+    private final RecordDirectory directory;
+    private final int slot;
 
-    //setters and getters
-    public void setBillId(String billId) {
-        this.billId = billId;
+    /**
+     * Bill Constructor.
+     *
+     * @param directory RecordDirectory which keeps the record
+     * @param slot slot of the record
+     */
+    Bill(RecordDirectory directory, int slot) {
+        this.directory = directory;
+        this.slot = slot;
     }
 
+    //getters
     public String getBillId() {
-        return billId;
+        return Bill.formatBillId(this.getNumericBillId());
     }
 
-    public void setMemberId(String memberId) {
-        this.memberId = memberId;
+    public int getNumericBillId() {
+        return directory.getInt(slot, 0);
     }
 
     public String getMemberId() {
-        return memberId;
+        int memberId = this.getNumericMemberId();
+        return memberId == NO_MEMBER ? "" : Bill.formatBillId(memberId);
     }
 
-    public void setTotalAmount(double totalAmount) {
-        this.totalAmount = totalAmount;
+    public int getNumericMemberId() {
+        return directory.getInt(slot, MEMBER);
     }
 
     public double getTotalAmount() {
-        return totalAmount;
-    }
-
-    public void setUsedOrNot(boolean usedOrNot) {
-        this.usedOrNot = usedOrNot;
+        return directory.getDouble(slot, TOTAL_AMOUNT);
     }
 
     public boolean isUsedOrNot() {
-        return usedOrNot;
+        return directory.getByte(slot, USED) != 0;
     }
 
-    public void setId(int id) {
-        this.id = id;
+    public long getStatusOffset() {
+        return directory.getLong(slot, STATUS_OFFSET);
     }
 
     public int getId() {
-        return id;
+        return directory.getInt(slot, LINE);
+    }
+
+    /**
+     * This method converts a numeric Bill ID back into its 6-digit String form.
+     *
+     * @param billId numeric Bill ID
+     * @return 6-digit Bill ID with leading zeros
+     */
+    public static String formatBillId(int billId) {
+        char[] digits = new char[6];
+        for (int i = 5; i >= 0; i--) {
+            digits[i] = (char) ('0' + billId % 10);
+            billId /= 10;
+        }
+        return new String(digits);
     }
 }
@@ -0,0 +1,90 @@
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The BillRuns class stores the entries of a RandomPickCompetition as one run per bill instead of
+ * one object per entry. All entries of a bill get consecutive entry IDs, so a run only needs the
+ * Bill ID and the last entry ID of the run (the running total of entries). A bill with thousands
+ * of entries therefore takes 8 bytes.
+ * The bill of an entry is found by binary search over the last entry IDs, so every entry ID stays
+ * addressable, and picking an entry ID uniformly picks a bill with weight of its number of
+ * entries.
+ *
+ * @see RandomPickCompetition
+ */
+public class BillRuns implements Serializable {
+    /*
+    @param billIds numeric Bill ID of every run
+    @param lastIds last entry ID of every run, in ascending order
+    @param runs    number of runs
+     */
+    private static final long serialVersionUID = -179130449667125826L;
+
+    private int[] billIds = new int[8];
+    private int[] lastIds = new int[8];
+    private int runs = 0;
+
+    /**
+     * This method returns the number of entries in all runs.
+     *
+     * @return number of entries, which is also the last entry ID
+     */
+    public int size() {
+        return runs == 0 ? 0 : lastIds[runs - 1];
+    }
+
+    public int runCount() {
+        return runs;
+    }
+
+    /**
+     * This method adds the entries of a bill after all other entries. Entries of the same bill
+     * as the last run are added to that run.
+     *
+     * @param billId numeric Bill ID which the entries belong to
+     * @param count number of entries to add
+     * @return entry ID of the first new entry
+     */
+    public int add(int billId, int count) {
+        int firstId = this.size() + 1;
+        if (count <= 0) {
+            return firstId;
+        }
+        if (runs > 0 && billIds[runs - 1] == billId) {
+            lastIds[runs - 1] += count;
+            return firstId;
+        }
+        if (runs == billIds.length) {
+            billIds = Arrays.copyOf(billIds, runs * 2);
+            lastIds = Arrays.copyOf(lastIds, runs * 2);
+        }
+        billIds[runs] = billId;
+        lastIds[runs] = firstId + count - 1;
+        runs += 1;
+        return firstId;
+    }
+
+    /**
+     * This method finds the bill which an entry belongs to.
+     *
+     * @param entryId entry ID from 1 to size()
+     * @return numeric Bill ID
+     */
+    public int getBillId(int entryId) {
+        if (entryId < 1 || entryId > this.size()) {
+            throw new IndexOutOfBoundsException("Entry ID " + entryId + " does not exist.");
+        }
+        //first run whose last entry ID is not smaller than entryId
+        int low = 0;
+        int high = runs - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (lastIds[middle] < entryId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return billIds[low];
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ * The CombinationCodec class numbers every set of 7 different numbers from 1 to 35. There are
+ * only C(35,7) = 6,724,520 such sets, so the numbers of an entry fit in one int (23 bits) which
+ * can be stored, hashed, compared and saved instead of a bitmask or an Array.
+ *
+ * The rank is the position of the set in the combinatorial number system (colexicographic order):
+ * for the numbers n1 < n2 < ... < n7 it is C(n1 - 1, 1) + C(n2 - 1, 2) + ... + C(n7 - 1, 7). The
+ * binomial coefficients are looked up in a precomputed table, so a rank takes 7 lookups. To
+ * unrank, a small table per number of the set gives a first guess of its position from the high
+ * bits of the rank, which is then corrected by one or two steps up the binomial table.
+ * 1.{1, 2, 3, 4, 5, 6, 7} has rank 0.
+ * 2.{29, 30, 31, 32, 33, 34, 35} has rank COUNT - 1.
+ * 3.an entry without numbers has rank NO_NUMBERS.
+ *
+ * @see NumbersEntry
+ * @see EntryStore
+ */
+public class CombinationCodec {
+    /*
+    @param NUMBER_COUNT constant represents number count of an entry
+    @param MAX_NUMBER   constant represents max number
+    @param COUNT        constant represents number of different sets of numbers, C(35,7)
+    @param NO_NUMBERS   constant represents rank of an entry without numbers (mask 0)
+    @param BINOMIAL     constant Array, BINOMIAL[k * 36 + n] is C(n,k) for n up to 35, k up to 7
+    @param GUESS_SIZE   constant represents most blocks of ranks in one guess table
+    @param GUESS_SHIFT  constant Array, ranks r and r' are in the same block for position k if
+                        they are equal after a shift right by GUESS_SHIFT[k]
+    @param GUESS        constant Array, GUESS[k][block] is the largest n with C(n,k) not above
+                        the first rank of the block
+     */
+    private static final int NUMBER_COUNT = 7;
+    private static final int MAX_NUMBER = 35;
+    public static final int COUNT = 6724520;
+    public static final int NO_NUMBERS = -1;
+    private static final int[] BINOMIAL = new int[(NUMBER_COUNT + 1) * (MAX_NUMBER + 1)];
+    private static final int GUESS_SIZE = 1 << 13;
+    private static final int[] GUESS_SHIFT = new int[NUMBER_COUNT + 1];
+    private static final byte[][] GUESS = new byte[NUMBER_COUNT + 1][];
+
+    static {
+        for (int n = 0; n <= MAX_NUMBER; n++) {
+            BINOMIAL[n] = 1;
+            for (int k = 1; k <= NUMBER_COUNT; k++) {
+                BINOMIAL[k * (MAX_NUMBER + 1) + n] = n == 0 ? 0 :
+                        BINOMIAL[(k - 1) * (MAX_NUMBER + 1) + n - 1] +
+                                BINOMIAL[k * (MAX_NUMBER + 1) + n - 1];
+            }
+        }
+        for (int k = 1; k <= NUMBER_COUNT; k++) {
+            int row = k * (MAX_NUMBER + 1);
+            while ((BINOMIAL[row + MAX_NUMBER] >>> GUESS_SHIFT[k]) >= GUESS_SIZE) {
+                GUESS_SHIFT[k] += 1;
+            }
+            GUESS[k] = new byte[(BINOMIAL[row + MAX_NUMBER] >>> GUESS_SHIFT[k]) + 1];
+            int n = k - 1;
+            for (int block = 0; block < GUESS[k].length; block++) {
+                while (n < MAX_NUMBER && BINOMIAL[row + n + 1] <= block << GUESS_SHIFT[k]) {
+                    n += 1;
+                }
+                GUESS[k][block] = (byte) n;
+            }
+        }
+    }
+
+    /**
+     * This method returns the rank of a numbers bitmask.
+     *
+     * @param mask numbers bitmask with 7 numbers from 1 to 35, or 0
+     * @return rank from 0 to COUNT - 1, NO_NUMBERS for mask 0
+     */
+    public static int rank(long mask) {
+        if (mask == 0) {
+            return NO_NUMBERS;
+        }
+        if (Long.bitCount(mask) != NUMBER_COUNT || (mask >>> MAX_NUMBER) != 0) {
+            throw new IllegalArgumentException("7 different numbers from 1 to 35 are expected.");
+        }
+        int rank = 0;
+        int k = 1;
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            rank += BINOMIAL[k * (MAX_NUMBER + 1) + Long.numberOfTrailingZeros(rest)];
+            k += 1;
+        }
+        return rank;
+    }
+
+    /**
+     * This method returns the rank of an Array of numbers in any order.
+     *
+     * @param numbers Integer Array of 7 different numbers from 1 to 35
+     * @return rank from 0 to COUNT - 1
+     */
+    public static int rank(int[] numbers) {
+        boolean valid = numbers.length == NUMBER_COUNT;
+        long mask = 0L;
+        for (int number : numbers) {
+            valid &= number >= 1 && number <= MAX_NUMBER;
+            mask |= 1L << (number - 1);
+        }
+        //repeated numbers are found by rank(mask), which needs 7 different bits
+        if (!valid) {
+            throw new IllegalArgumentException("7 different numbers from 1 to 35 are expected.");
+        }
+        return CombinationCodec.rank(mask);
+    }
+
+    /**
+     * This method returns the numbers bitmask of a rank.
+     *
+     * @param rank rank from 0 to COUNT - 1, or NO_NUMBERS
+     * @return numbers bitmask with bit (n - 1) set for every number n, 0 for NO_NUMBERS
+     */
+    public static long toMask(int rank) {
+        if (rank == NO_NUMBERS) {
+            return 0L;
+        }
+        CombinationCodec.checkRank(rank);
+        long mask = 0L;
+        for (int k = NUMBER_COUNT; k >= 1; k--) {
+            int n = CombinationCodec.position(k, rank);
+            rank -= BINOMIAL[k * (MAX_NUMBER + 1) + n];
+            mask |= 1L << n;
+        }
+        return mask;
+    }
+
+    /**
+     * This method returns the numbers of a rank in ascending order, as they are printed.
+     *
+     * @param rank rank from 0 to COUNT - 1
+     * @return sorted Integer Array of 7 numbers
+     */
+    public static int[] toNumbers(int rank) {
+        CombinationCodec.checkRank(rank);
+        int[] numbers = new int[NUMBER_COUNT];
+        for (int k = NUMBER_COUNT; k >= 1; k--) {
+            int n = CombinationCodec.position(k, rank);
+            rank -= BINOMIAL[k * (MAX_NUMBER + 1) + n];
+            numbers[k - 1] = n + 1;
+        }
+        return numbers;
+    }
+
+    /**
+     * This method finds the position (number minus 1) of the k-th smallest number of a set, which
+     * is the largest n with C(n,k) not above the rest of the rank.
+     *
+     * @param k which number of the set, from 7 down to 1
+     * @param rank rest of the rank after the larger numbers are taken off, below C(35,k)
+     * @return position of the k-th smallest number
+     */
+    private static int position(int k, int rank) {
+        int row = k * (MAX_NUMBER + 1);
+        int n = GUESS[k][rank >>> GUESS_SHIFT[k]];
+        //the rest of the rank is below C(n',k) of the larger number n', so n stays below 35
+        while (BINOMIAL[row + n + 1] <= rank) {
+            n += 1;
+        }
+        return n;
+    }
+
+    /**
+     * This method checks a rank.
+     *
+     * @param rank rank to be checked
+     */
+    private static void checkRank(int rank) {
+        if (rank < 0 || rank >= COUNT) {
+            throw new IllegalArgumentException("Rank " + rank + " is out of range.");
+        }
+    }
+
+    /**
+     * The DuplicateCounter class counts in one pass how often the same numbers are picked by
+     * different entries. It keeps one bit per possible set of numbers (about 820 KB) for the sets
+     * seen so far and one for the sets seen more than once, however many entries there are.
+     */
+    public static class DuplicateCounter {
+        /*
+        @param seen         one bit per rank, set once an entry with that rank is added
+        @param repeated     one bit per rank, set once a second entry with that rank is added
+        @param entries      number of entries added
+        @param duplicates   number of entries whose numbers were picked by an earlier entry
+        @param repeatedSets number of different sets of numbers picked more than once
+         */
+        private final long[] seen = new long[(COUNT + 63) >>> 6];
+        private final long[] repeated = new long[(COUNT + 63) >>> 6];
+        private int entries = 0;
+        private int duplicates = 0;
+        private int repeatedSets = 0;
+
+        /**
+         * This method adds the numbers of an entry.
+         *
+         * @param rank rank of the entry, NO_NUMBERS is skipped
+         * @return whether an earlier entry has the same numbers
+         */
+        public boolean add(int rank) {
+            if (rank == NO_NUMBERS) {
+                return false;
+            }
+            CombinationCodec.checkRank(rank);
+            entries += 1;
+            int word = rank >>> 6;
+            long bit = 1L << rank;
+            if ((seen[word] & bit) == 0) {
+                seen[word] |= bit;
+                return false;
+            }
+            duplicates += 1;
+            if ((repeated[word] & bit) == 0) {
+                repeated[word] |= bit;
+                repeatedSets += 1;
+            }
+            return true;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public int getDuplicates() {
+            return duplicates;
+        }
+
+        public int getRepeatedSets() {
+            return repeatedSets;
+        }
+    }
+}
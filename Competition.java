@@ -1,14 +1,14 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.HashMap;
 import java.util.Scanner;
 import java.util.Map;
 
 /**
  * This abstract class is the superclass of LuckyNumbersCompetition and RandomPickCompetition.
- * It also uses several HashMap data structure to store some important data.
- * 1.memberMap stores every bill's id which user input and its corresponding member id in bill file.
- * 2.billMap stores every entry's id and the id of the bill which it belongs.
- * 3.winnerMap stores winner entries' id and its prizes.
+ * It also uses several data structures to store some important data.
+ * 1.entryStore stores every entry's id and the id of the bill which it belongs.
+ * 2.drawResult stores winner entries' id and its prizes.
  *
  * @see LuckyNumbersCompetition
  * @see RandomPickCompetition
@@ -24,10 +24,13 @@ public abstract class Competition implements Serializable {
     @param winnerNum     number of winning entries
     @param totalPrizes   total awarded prizes
 
-    @param memberMap     HashMap<String Bill ID, String Member ID> stores members and billID
-    @param billMap       HashMap<Integer Entry ID, String Bill ID> stores bills and entryID
-    @param winnerMap     HashMap<Integer Entry ID, Integer prize> stores winner of each entry
+    @param entryStore    EntryStore stores bills (and numbers) of every entryID
+    @param drawResult    DrawResult stores the winning entries and their prizes
+    @param legacyBillMap billMap of a competition saved by an older version (only while loading)
+    @param output        OutputSink which takes entry listings and winners (console by default)
      */
+    private static final long serialVersionUID = -1195032536254667431L;
+
     private String name;
     private int id;
     private int entryID = 0;
@@ -37,9 +40,10 @@ public abstract class Competition implements Serializable {
     private int winnerNum = 0;
     private int totalPrizes = 0;
 
-    public static Map<String, String> memberMap = new HashMap<>();
-    Map<Integer, String> billMap = new HashMap<>();
-    Map<Integer, Integer> winnerMap = new HashMap<>();
+    EntryStore entryStore = new EntryStore();
+    transient DrawResult drawResult = new DrawResult();
+    transient Map<Integer, String> legacyBillMap;
+    private transient OutputSink output;
 
     //getters and setters
     public void setName(String name) {
@@ -98,13 +102,45 @@ public abstract class Competition implements Serializable {
         this.totalPrizes = totalPrizes;
     }
 
+    public DrawResult getDrawResult() {
+        return drawResult;
+    }
+
+    public void setOutput(OutputSink output) {
+        this.output = output;
+    }
+
+    /**
+     * This method returns the OutputSink of this competition and creates a console one when
+     * needed (e.g. after the competition is loaded from a file).
+     *
+     * @return OutputSink object of this competition
+     */
+    public OutputSink getOutput() {
+        if (output == null) {
+            output = OutputSink.console();
+        }
+        return output;
+    }
+
     /**
      * This protected method prints information of current competition including Competition ID,
      * Competition Name and its type.
      */
     protected void printCompetitionInfo() {
-        System.out.printf("Competition ID: %d, Competition Name: %s, Type: %s\n",
-                this.getId(), this.getName(), this.getClass().getName());
+        this.printCompetitionInfo(this.getOutput());
+        this.getOutput().flush();
+    }
+
+    /**
+     * This protected method appends information of current competition to an OutputSink.
+     *
+     * @param out OutputSink to append to
+     */
+    protected void printCompetitionInfo(OutputSink out) {
+        out.print("Competition ID: ").print(this.getId())
+                .print(", Competition Name: ").print(this.getName())
+                .print(", Type: ").print(this.getClass().getName()).print("\n");
     }
 
     /**
@@ -122,26 +158,151 @@ public abstract class Competition implements Serializable {
         return true;
     }
 
+    /**
+     * This protected method returns the Bill ID which an entry belongs to.
+     *
+     * @param entryId entry identifier
+     * @return 6-digit Bill ID
+     */
+    protected String getBillID(int entryId) {
+        return Bill.formatBillId(this.getEntryBillId(entryId));
+    }
+
+    /**
+     * This protected method returns the number of entries stored. Subclasses which do not keep
+     * their entries in entryStore override it together with the other entry getters below.
+     *
+     * @return number of entries
+     */
+    protected int getEntryCount() {
+        return entryStore.size();
+    }
+
+    /**
+     * This protected method returns the numeric Bill ID which an entry belongs to.
+     *
+     * @param entryId entry identifier
+     * @return numeric Bill ID
+     */
+    protected int getEntryBillId(int entryId) {
+        return entryStore.getBillId(entryId);
+    }
+
+    /**
+     * This protected method returns the numbers of an entry.
+     *
+     * @param entryId entry identifier
+     * @return CombinationCodec rank of the numbers (NO_NUMBERS for entries without numbers)
+     */
+    protected int getEntryRank(int entryId) {
+        return entryStore.getRank(entryId);
+    }
+
+    /**
+     * This protected method checks whether an entry is a manual one.
+     *
+     * @param entryId entry identifier
+     * @return whether the entry is a manual one
+     */
+    protected boolean isManualEntry(int entryId) {
+        return entryStore.isManual(entryId);
+    }
+
+    /**
+     * This protected method adds an entry which is read back from a snapshot file.
+     *
+     * @param rank CombinationCodec rank of the numbers (NO_NUMBERS for entries without numbers)
+     * @param billId numeric Bill ID which the entry belongs to
+     * @param isManual whether the entry is a manual one
+     */
+    protected void restoreEntry(int rank, int billId, boolean isManual) {
+        entryStore.add(rank, billId, isManual);
+    }
+
+    /**
+     * This method reads a competition saved with Java serialization. Competitions saved by older
+     * versions have a billMap instead of entryStore; it is kept in legacyBillMap so the subclass
+     * can rebuild entryStore from it.
+     *
+     * @param in ObjectInputStream to read from
+     * @exception IOException stream cannot be read
+     * @exception ClassNotFoundException class of a field cannot be found
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        name = (String) fields.get("name", null);
+        id = fields.get("id", 0);
+        entryID = fields.get("entryID", 0);
+        startID = fields.get("startID", 1);
+        winnerEntry = (int[]) fields.get("winnerEntry", null);
+        winnerNum = fields.get("winnerNum", 0);
+        totalPrizes = fields.get("totalPrizes", 0);
+        Map<Integer, Integer> winnerMap =
+                (Map<Integer, Integer>) Competition.legacyField(fields, "winnerMap");
+        drawResult = winnerMap == null ? new DrawResult() : DrawResult.of(winnerMap);
+        entryStore = (EntryStore) fields.get("entryStore", null);
+        if (entryStore == null) {
+            entryStore = new EntryStore();
+            legacyBillMap = (Map<Integer, String>) Competition.legacyField(fields, "billMap");
+        }
+    }
+
+    /**
+     * This protected method reads a field which only competitions saved by older versions have.
+     * Asking ObjectInputStream.GetField for a field which is neither in the stream nor in the
+     * class fails, so the stream is checked first.
+     *
+     * @param fields fields read from the stream
+     * @param name name of the field
+     * @return value of the field, or null if the stream does not have it
+     * @exception IOException stream cannot be read
+     */
+    protected static Object legacyField(ObjectInputStream.GetField fields, String name)
+            throws IOException {
+        return fields.getObjectStreamClass().getField(name) == null ? null :
+                fields.get(name, null);
+    }
+
+    /**
+     * This protected method rebuilds the entries of a competition saved by an older version.
+     *
+     * @param masks HashMap<Integer Entry ID, Long numbers> numbers of the entries (or null)
+     * @param manual HashMap<Integer Entry ID, Integer status> manual(1)/auto(0) entries (or null)
+     */
+    protected void restoreLegacyEntries(Map<Integer, Long> masks, Map<Integer, Integer> manual) {
+        if (legacyBillMap == null) {
+            return;
+        }
+        for (int i = 1; i <= legacyBillMap.size(); i++) {
+            long mask = masks == null ? 0L : masks.get(i);
+            boolean isManual = manual != null && manual.get(i) == 1;
+            int billId = Integer.parseInt(legacyBillMap.get(i));
+            this.restoreEntry(CombinationCodec.rank(mask), billId, isManual);
+        }
+        legacyBillMap = null;
+    }
+
     /**
      * This protected method is designed to ask if user wants to add more entries.
      *
      * @param keyboard Scanner object to work with system input stream
-     * @param dataProvider DataProvider object to work with data files
-     * @param mode mode of current Competition object
+     * @return whether user wants to add more entries or not
      */
-    protected void addMoreEntries(Scanner keyboard, DataProvider dataProvider, char mode) {
-        System.out.println("Add more entries (Y/N)?");
-        char choice = keyboard.next().toUpperCase().charAt(0);
-        switch (choice) {
-            case 'Y':
-                this.handleEntry(keyboard, dataProvider, mode);
-                break;
-            case 'N':
-                break;
-            default:
-                System.out.println("Unsupported option. Please try again!");
-                this.addMoreEntries(keyboard, dataProvider, mode);
-                break;
+    protected boolean addMoreEntries(Scanner keyboard) {
+        //loop until a supported option is given
+        while (true) {
+            System.out.println("Add more entries (Y/N)?");
+            char choice = keyboard.next().toUpperCase().charAt(0);
+            switch (choice) {
+                case 'Y':
+                    return true;
+                case 'N':
+                    return false;
+                default:
+                    System.out.println("Unsupported option. Please try again!");
+                    break;
+            }
         }
     }
 
@@ -160,7 +321,9 @@ public abstract class Competition implements Serializable {
      * This method is designed to ask user to creat entries. User should enter a valid id of a bill
      * which existed in bill file. If everything works well, the program will store bill's id and
      * automatically search for its corresponding member's id through a DataProvider object which
-     * generated at the beginning of the program.
+     * generated at the beginning of the program. The Bill ID is parsed and looked up once, and
+     * every check uses the same Bill. Bills are taken in a loop until user does not want to add
+     * more entries.
      *
      * @param keyboard Scanner object to work with system input stream
      * @param dataProvider DataProvider object to work with data files
@@ -168,41 +331,71 @@ public abstract class Competition implements Serializable {
      * @see DataProvider
      */
     public void handleEntry(Scanner keyboard, DataProvider dataProvider, char mode) {
-        //loop to take and check Bill ID
-        String billID;
-        while (true) {
-            System.out.println("Bill ID: ");
-            billID = keyboard.next();
-            keyboard.nextLine();
-
-            if (billID.trim().length() != 6 || !this.isNumeric(billID)) {
-                System.out.println("Invalid bill id! It must be a 6-digit number. " +
-                        "Please try again.");
-            } else if (dataProvider.getBill(billID) == null) {
-                System.out.println("This bill does not exist. Please try again.");
-            } else if (dataProvider.getBill(billID).getMemberId().equals("")) {
-                System.out.println("This bill has no member id. Please try again.");
-            } else if (dataProvider.usedBillId.contains(billID) ||
-                    dataProvider.getBill(billID).isUsedOrNot()) {
-                System.out.println("This bill has already been used for a competition. " +
-                        "Please try again.");
+        //loop to add the entries of one bill after another
+        do {
+            //loop to take and check Bill ID
+            String billID;
+            Bill bill;
+            while (true) {
+                System.out.println("Bill ID: ");
+                billID = keyboard.next();
+                keyboard.nextLine();
+
+                bill = dataProvider.getBill(DataProvider.parseId(billID));
+                String problem = this.checkBill(dataProvider, billID, bill);
+                if (problem == null && !this.claimBill(dataProvider, bill)) {
+                    problem = "This bill has already been used for a competition. " +
+                            "Please try again.";
+                }
+                if (problem == null) {
+                    break;
+                }
+                System.out.println(problem);
+            }
+
+            //get total amount from the bill and check its legality
+            double totalAmount = bill.getTotalAmount();
+            if (totalAmount < 50) {
+                System.out.println("This bill is not eligible for an entry. " +
+                        "The total amount is smaller than $50.0");
             } else {
-                //store Bill ID and Member ID
-                memberMap.put(billID, dataProvider.getBill(billID).getMemberId());
-                dataProvider.usedBillId.add(billID);
-                break;
+                this.addEntries(keyboard, dataProvider, billID, totalAmount, mode);
             }
-        }
+        } while (this.addMoreEntries(keyboard));
+    }
 
-        //get total amount from DataProvider object and check its legality
-        double totalAmount = dataProvider.getBill(billID).getTotalAmount();
-        if (totalAmount < 50) {
-            System.out.println("This bill is not eligible for an entry. " +
-                    "The total amount is smaller than $50.0");
-            this.addMoreEntries(keyboard, dataProvider, mode);
-        } else {
-            this.addEntries(keyboard, dataProvider, billID, totalAmount, mode);
+    /**
+     * This method checks whether a bill could take part in a competition. It does not claim the
+     * bill, so the bill could still be claimed by another competition afterwards.
+     *
+     * @param dataProvider DataProvider object to work with data files
+     * @param billID Bill ID to be checked
+     * @param bill Bill of the Bill ID found in dataProvider, null if there is none
+     * @return the reason why the bill cannot be used, or null if it can be used
+     */
+    public String checkBill(DataProvider dataProvider, String billID, Bill bill) {
+        if (billID.trim().length() != 6 || !this.isNumeric(billID)) {
+            return "Invalid bill id! It must be a 6-digit number. Please try again.";
+        } else if (bill == null) {
+            return "This bill does not exist. Please try again.";
+        } else if (bill.getNumericMemberId() == Bill.NO_MEMBER) {
+            return "This bill has no member id. Please try again.";
+        } else if (dataProvider.isBillUsed(bill)) {
+            return "This bill has already been used for a competition. Please try again.";
         }
+        return null;
+    }
+
+    /**
+     * This method claims a checked bill for this competition. Only one competition can claim a
+     * bill, even when several competitions claim it at the same time.
+     *
+     * @param dataProvider DataProvider object to work with data files
+     * @param bill Bill which has passed checkBill
+     * @return true if the bill is claimed, false if another entry claimed it first
+     */
+    public boolean claimBill(DataProvider dataProvider, Bill bill) {
+        return dataProvider.tryClaim(bill.getNumericBillId());
     }
 
     /**
@@ -217,6 +410,19 @@ public abstract class Competition implements Serializable {
     public abstract void addEntries(Scanner keyboard, DataProvider dataProvider, String billID,
                                     double totalAmount, char mode);
 
+    /**
+     * This abstract method creates the entries of one claimed bill without asking the user.
+     * The entries get consecutive entry IDs of this competition even when other threads add
+     * entries at the same time.
+     *
+     * @param billID Bill ID which the entries belong to
+     * @param entryNum total number of entries of the bill
+     * @param manualMasks numbers bitmasks of the manual entries (at most entryNum)
+     * @param mode mode of current Competition object
+     * @return entry ID of the first created entry
+     */
+    public abstract int createEntries(String billID, int entryNum, long[] manualMasks, char mode);
+
     /**
      * This abstract method is used to draw winners in the current competition.
      *
@@ -0,0 +1,95 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The CompetitionArchive class keeps completed competitions in a temporary archive file instead
+ * of on the heap. Every competition is appended to the file as a snapshot section (the same
+ * format SnapshotWriter uses) and replaced in memory by a small ArchivedCompetition, so heap use
+ * does not grow with the number of completed competitions in a session. When the sections are
+ * read again (to save the session, or to page a competition back in with
+ * ArchivedCompetition.load), they are slices of one read-only mapping of the file, which
+ * is only replaced when a section lies outside it (e.g. after more competitions are appended).
+ * The file is deleted when the program exits.
+ *
+ * @see ArchivedCompetition
+ * @see SnapshotWriter
+ */
+public class CompetitionArchive implements Closeable {
+    /*
+    @param WINDOW_STEP constant represents alignment of the start of a mapping
+    @param WINDOW_SIZE constant represents smallest mapping (unless the file ends before)
+
+    @param channel     FileChannel of the archive file
+    @param window      read-only mapping of a part of the archive file, or null
+    @param windowStart position of the mapping in the archive file
+     */
+    private static final long WINDOW_STEP = 1L << 29;
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    /**
+     * CompetitionArchive Constructor creates a new temporary archive file.
+     *
+     * @exception IOException file cannot be created
+     */
+    public CompetitionArchive() throws IOException {
+        Path path = Files.createTempFile("competitions", ".archive");
+        path.toFile().deleteOnExit();
+        this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    /**
+     * This method appends a completed competition to the archive.
+     *
+     * @param competition Competition object which has drawn its winners
+     * @return ArchivedCompetition which replaces the competition in memory
+     * @exception IOException file cannot be written
+     */
+    public synchronized ArchivedCompetition archive(Competition competition) throws IOException {
+        long offset = channel.size();
+        channel.position(offset);
+        try (SnapshotWriter writer = new SnapshotWriter(channel)) {
+            writer.writeCompetition(competition);
+        }
+        return new ArchivedCompetition(this, competition, offset, channel.size() - offset);
+    }
+
+    /**
+     * This method returns one section of the archive as a slice of the current mapping. The file
+     * is mapped again only if the section is not inside the mapping; the new mapping starts at a
+     * multiple of WINDOW_STEP, so every section up to WINDOW_SIZE - WINDOW_STEP bytes long fits
+     * into it.
+     *
+     * @param offset position of the section in the archive
+     * @param length length of the section
+     * @return read-only buffer of the section
+     * @exception IOException file cannot be read
+     */
+    synchronized ByteBuffer section(long offset, long length) throws IOException {
+        if (window == null || offset < windowStart ||
+                offset + length > windowStart + window.capacity()) {
+            //the old mapping is released once no slice of it is used any more
+            windowStart = offset / WINDOW_STEP * WINDOW_STEP;
+            long windowLength = Math.min(channel.size() - windowStart,
+                    Math.max(WINDOW_SIZE, offset + length - windowStart));
+            window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+        }
+        return window.slice((int) (offset - windowStart), (int) length);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The CompetitionEngine class holds every active competition of a SimpleCompetitions, keyed by
+ * competition ID, and takes entries for them from several threads at the same time.
+ * 1.Every competition creates its entries under its own lock, so each competition keeps its own
+ *   sequence of entry IDs while different competitions never wait for each other.
+ * 2.A bill is claimed through the shared DataProvider, so it can only be used once over all
+ *   competitions.
+ * 3.Winners of a competition are drawn under the same lock, so no entry is added to a
+ *   competition after its winners have been drawn.
+ *
+ * @see Competition
+ * @see DataProvider
+ * @see SimpleCompetitions
+ */
+public class CompetitionEngine {
+    /*
+    @param dataProvider DataProvider object to work with data files
+    @param mode         mode of the SimpleCompetitions
+    @param active       ConcurrentHashMap<Integer Competition ID, Competition> active competitions
+     */
+    private final DataProvider dataProvider;
+    private final char mode;
+    private final ConcurrentHashMap<Integer, Competition> active = new ConcurrentHashMap<>();
+
+    /**
+     * CompetitionEngine Constructor.
+     *
+     * @param dataProvider DataProvider object to work with data files
+     * @param mode mode of the SimpleCompetitions
+     */
+    public CompetitionEngine(DataProvider dataProvider, char mode) {
+        this.dataProvider = dataProvider;
+        this.mode = mode;
+    }
+
+    /**
+     * This method adds an active competition to the engine.
+     *
+     * @param competition Competition object which has not drawn its winners
+     */
+    public void register(Competition competition) {
+        active.put(competition.getId(), competition);
+    }
+
+    /**
+     * This method returns an active competition.
+     *
+     * @param competitionId competition identifier
+     * @return the active competition, or null if there is no active competition with this ID
+     */
+    public Competition get(int competitionId) {
+        return active.get(competitionId);
+    }
+
+    /**
+     * This method returns all active competitions ordered by competition ID.
+     *
+     * @return List of active competitions
+     */
+    public List<Competition> getActive() {
+        List<Competition> competitions = new ArrayList<>(active.values());
+        competitions.sort(Comparator.comparingInt(Competition::getId));
+        return competitions;
+    }
+
+    public int activeCount() {
+        return active.size();
+    }
+
+    /**
+     * This method adds the entries of one bill to an active competition without asking the user.
+     * The bill is checked the same way as in Competition.handleEntry and claimed only when all
+     * checks have passed, so a rejected request never uses up a bill.
+     *
+     * @param competitionId competition identifier
+     * @param billID Bill ID to participate in the competition
+     * @param manualMasks numbers bitmasks of the manual entries (empty for RandomPick)
+     * @return entry ID of the first created entry
+     * @exception EntryRejectedException the bill or its entries cannot be added
+     */
+    public int submit(int competitionId, String billID, long[] manualMasks)
+            throws EntryRejectedException {
+        Competition competition = active.get(competitionId);
+        if (competition == null) {
+            throw new EntryRejectedException("There is no active competition with this id.");
+        }
+        Bill bill = dataProvider.getBill(DataProvider.parseId(billID));
+        String problem = competition.checkBill(dataProvider, billID, bill);
+        if (problem != null) {
+            throw new EntryRejectedException(problem);
+        }
+        int entryNum = (int) (bill.getTotalAmount() / 50);
+        if (entryNum == 0) {
+            throw new EntryRejectedException("This bill is not eligible for an entry. " +
+                    "The total amount is smaller than $50.0");
+        }
+        if (manualMasks.length > 0 && !(competition instanceof LuckyNumbersCompetition)) {
+            throw new EntryRejectedException("This competition does not take manual entries.");
+        }
+        if (manualMasks.length > entryNum) {
+            throw new EntryRejectedException(String.format("The number of manual entries must " +
+                    "be in the range from 0 to %d.", entryNum));
+        }
+
+        for (long mask : manualMasks) {
+            if (Long.bitCount(mask) != 7 || (mask >>> 35) != 0) {
+                throw new EntryRejectedException("Every manual entry must have 7 different " +
+                        "numbers in the range from 1 to 35.");
+            }
+        }
+
+        synchronized (competition) {
+            if (competition.getWinnerEntry() != null) {
+                throw new EntryRejectedException("The winners of this competition have " +
+                        "already been drawn.");
+            }
+            if (!competition.claimBill(dataProvider, bill)) {
+                throw new EntryRejectedException("This bill has already been used for a " +
+                        "competition.");
+            }
+            return competition.createEntries(billID, entryNum, manualMasks, mode);
+        }
+    }
+
+    /**
+     * This method draws the winners of an active competition and removes it from the engine.
+     *
+     * @param competitionId competition identifier
+     * @return the completed competition, or null if there is no active competition with this ID
+     */
+    public Competition drawWinners(int competitionId) {
+        Competition competition = active.get(competitionId);
+        if (competition == null) {
+            return null;
+        }
+        synchronized (competition) {
+            competition.drawWinners(dataProvider, mode);
+            active.remove(competitionId);
+        }
+        return competition;
+    }
+}
@@ -0,0 +1,488 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The CsvLoader class reads the member file and the bill file for DataProvider. The file is
+ * mapped into memory through a FileChannel and every line is split into fields in place, without
+ * regular expressions and without creating a String for each field. Every member and bill is
+ * written as a fixed-width record into a RecordDirectory: IDs and amounts are parsed into
+ * numbers, names and addresses are copied as bytes.
+ *
+ * All formats are checked by hand instead of relying on the exceptions of Integer.valueOf and
+ * Double.valueOf; only an amount which is not a plain decimal number (e.g. "1e3") is left to
+ * Double.parseDouble, so the same amounts are accepted as before. The first row with a wrong
+ * format stops the loading with a DataFormatException which reports the line number of that row.
+ *
+ * @see DataProvider
+ */
+public class CsvLoader {
+    /*
+    @param MAX_WINDOW   constant represents the largest part of the file mapped at once
+    @param CHUNK_SIZE   constant represents size of a part of the bill file parsed by one task
+    @param MAX_FIELDS   constant represents number of fields whose position is remembered
+    @param ID_LENGTH    constant represents length of a Member ID or a Bill ID
+    @param MAX_DIGITS   constant represents most digits of an amount parsed without a String
+    @param POWERS       constant Array stores exact powers of ten as double
+
+    @param fileName     path to the file to load
+    @param fieldStart   start position of every field of the current line
+    @param fieldEnd     end position of every field of the current line
+    @param bytes        reused buffer to create Strings from
+     */
+    private static final long MAX_WINDOW = 1L << 30;
+    private static final int CHUNK_SIZE = 1 << 22;
+    private static final int MAX_FIELDS = 8;
+    private static final int ID_LENGTH = 6;
+    private static final int MAX_DIGITS = 15;
+    private static final double[] POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final String fileName;
+    private final int[] fieldStart = new int[MAX_FIELDS];
+    private final int[] fieldEnd = new int[MAX_FIELDS];
+    private byte[] bytes = new byte[64];
+
+    /**
+     * This interface handles one mapped window of the file and returns the number of lines read
+     * up to the end of the window.
+     */
+    private interface WindowHandler {
+        int window(ByteBuffer buffer, long position, int end, int firstLine)
+                throws DataFormatException;
+    }
+
+    /**
+     * This interface handles one line of the file after it is split into fields.
+     */
+    private interface RowHandler {
+        void row(ByteBuffer buffer, int fieldCount, int lineNumber) throws DataFormatException;
+    }
+
+    /**
+     * CsvLoader Constructor.
+     *
+     * @param fileName A path to the file to load (e.g., members.csv)
+     */
+    public CsvLoader(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * This method loads the member file. Each line is "Member ID,Member name,address" and the
+     * Member ID must be a 6-digit number.
+     *
+     * @param members RecordDirectory of Member records to store member data
+     * @exception DataAccessException handle file cannot be opened or read error
+     * @exception DataFormatException handle format of the content incorrect error
+     */
+    public void loadMembers(RecordDirectory members)
+            throws DataAccessException, DataFormatException {
+        this.load((buffer, position, end, firstLine) -> this.parseLines(buffer, 0, end, firstLine,
+                (lineBuffer, fieldCount, lineNumber) -> {
+                    if (fieldCount < 3 || !this.isId(lineBuffer, 0)) {
+                        throw this.formatError(lineNumber);
+                    }
+                    int slot = members.put(this.parseId(lineBuffer, 0));
+                    members.putText(slot, Member.NAME, lineBuffer, fieldStart[1], fieldEnd[1]);
+                    members.putText(slot, Member.ADDRESS, lineBuffer, fieldStart[2], fieldEnd[2]);
+                }));
+    }
+
+    /**
+     * This method loads the bill file. Each line is "Bill ID,Member ID,total amount,status".
+     * The Bill ID must be a 6-digit number, the Member ID must be a 6-digit number or empty,
+     * the total amount must be a decimal number and the status must be true or false.
+     * Every bill gets the number of its line and the position of its status in the file,
+     * so DataProvider can update the status in place. The status may be padded with trailing
+     * spaces ("true " has the same width as "false").
+     *
+     * The file is split on line breaks into chunks of about CHUNK_SIZE bytes which are parsed in
+     * parallel on the common ForkJoinPool, each by its own CsvLoader into its own records. The
+     * chunks are then merged into the RecordDirectory in file order, so line numbers and
+     * duplicated Bill IDs are handled exactly as if the file was read line by line.
+     *
+     * @param bills RecordDirectory of Bill records to store bill data
+     * @exception DataAccessException handle file cannot be opened or read error
+     * @exception DataFormatException handle format of the content incorrect error
+     */
+    public void loadBills(RecordDirectory bills)
+            throws DataAccessException, DataFormatException {
+        this.load((buffer, position, end, firstLine) -> {
+            List<BillChunk> chunks = new ArrayList<>();
+            int chunkStart = 0;
+            while (chunkStart < end) {
+                int chunkEnd = (int) Math.min(end, (long) chunkStart + CHUNK_SIZE);
+                while (chunkEnd < end && buffer.get(chunkEnd - 1) != '\n') {
+                    chunkEnd++;
+                }
+                chunks.add(new BillChunk(chunkStart, chunkEnd));
+                chunkStart = chunkEnd;
+            }
+
+            chunks.parallelStream().forEach(chunk -> chunk.parse(buffer, position, fileName));
+
+            //merge in file order, line numbers of a chunk start after the previous chunks
+            int lineNumber = firstLine;
+            for (BillChunk chunk : chunks) {
+                if (chunk.errorLine > 0) {
+                    throw this.formatError(lineNumber + chunk.errorLine);
+                }
+                for (int base = 0; base < chunk.recordCount * Bill.RECORD_BYTES;
+                     base += Bill.RECORD_BYTES) {
+                    int slot = bills.put(chunk.records.getInt(base));
+                    bills.copyFields(slot, chunk.records, base);
+                    bills.putInt(slot, Bill.LINE, lineNumber + bills.getInt(slot, Bill.LINE));
+                }
+                lineNumber += chunk.lineCount;
+            }
+            return lineNumber;
+        });
+    }
+
+    /**
+     * This method parses one line of the bill file into a Bill record.
+     *
+     * @param buffer bytes of the file
+     * @param position position of the buffer in the file
+     * @param fieldCount number of fields in the line
+     * @param records buffer to write the record into
+     * @param base position of the record in records
+     * @return whether the format of the line is correct
+     */
+    private boolean parseBill(ByteBuffer buffer, long position, int fieldCount,
+                              ByteBuffer records, int base) {
+        if (fieldCount < 4 || !this.isId(buffer, 0) ||
+                (fieldEnd[1] != fieldStart[1] && !this.isId(buffer, 1))) {
+            return false;
+        }
+        double totalAmount;
+        try {
+            totalAmount = this.parseAmount(buffer, fieldStart[2], fieldEnd[2]);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        int usedOrNot = this.parseBoolean(buffer, fieldStart[3], fieldEnd[3]);
+        if (usedOrNot < 0) {
+            return false;
+        }
+        records.putInt(base, this.parseId(buffer, 0));
+        records.putInt(base + Bill.MEMBER,
+                fieldEnd[1] == fieldStart[1] ? Bill.NO_MEMBER : this.parseId(buffer, 1));
+        records.putDouble(base + Bill.TOTAL_AMOUNT, totalAmount);
+        records.putLong(base + Bill.STATUS_OFFSET, position + fieldStart[3]);
+        records.put(base + Bill.USED, (byte) usedOrNot);
+        return true;
+    }
+
+    /**
+     * The BillChunk class is one part of the bill file which is parsed by one task. Its Bill
+     * records are kept in a heap buffer until they are merged, and first get the line number
+     * inside the chunk.
+     */
+    private static class BillChunk {
+        /*
+        @param start       position of the first byte of the chunk
+        @param end         position after the last byte of the chunk
+        @param records     ByteBuffer stores Bill records of the chunk in line order, in the
+                           native byte order of RecordDirectory
+        @param recordCount number of records in records
+        @param lineCount   number of lines in the chunk
+        @param errorLine   line number inside the chunk of the first incorrect line (0 if none)
+         */
+        private final int start;
+        private final int end;
+        private ByteBuffer records = ByteBuffer.allocate(64 * Bill.RECORD_BYTES)
+                .order(ByteOrder.nativeOrder());
+        private int recordCount = 0;
+        private int lineCount = 0;
+        private int errorLine = 0;
+
+        BillChunk(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * This method parses all lines of the chunk and stops at the first incorrect line.
+         *
+         * @param buffer bytes of the file
+         * @param position position of the buffer in the file
+         * @param fileName path to the bill file
+         */
+        void parse(ByteBuffer buffer, long position, String fileName) {
+            CsvLoader worker = new CsvLoader(fileName);
+            try {
+                lineCount = worker.parseLines(buffer, start, end, 0,
+                        (lineBuffer, fieldCount, lineNumber) -> {
+                            int base = recordCount * Bill.RECORD_BYTES;
+                            if (base == records.capacity()) {
+                                records = ByteBuffer.allocate(base * 2)
+                                        .order(ByteOrder.nativeOrder()).put(records.clear());
+                            }
+                            if (!worker.parseBill(lineBuffer, position, fieldCount, records,
+                                    base)) {
+                                errorLine = lineNumber;
+                                throw worker.formatError(lineNumber);
+                            }
+                            records.putInt(base + Bill.LINE, lineNumber);
+                            recordCount += 1;
+                        });
+            } catch (DataFormatException e) {
+                recordCount = 0;
+            }
+        }
+    }
+
+    /**
+     * This method maps the file window by window and hands every line to the handler. A window
+     * always ends at a line break, so no line is split between two windows.
+     *
+     * @param handler WindowHandler to handle every window
+     * @exception DataAccessException handle file cannot be opened or read error
+     * @exception DataFormatException handle format of the content incorrect error
+     */
+    private void load(WindowHandler handler) throws DataAccessException, DataFormatException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName),
+                StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            int lineNumber = 0;
+            while (position < size) {
+                long length = Math.min(size - position, MAX_WINDOW);
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = (int) length;
+                if (position + length < size) {
+                    while (end > 0 && buffer.get(end - 1) != '\n') {
+                        end--;
+                    }
+                    if (end == 0) {
+                        throw this.formatError(lineNumber + 1);
+                    }
+                }
+                lineNumber = handler.window(buffer, position, end, lineNumber);
+                position += end;
+            }
+        } catch (IOException e) {
+            throw new DataAccessException();
+        }
+    }
+
+    /**
+     * This method splits the bytes from start (inclusive) to end (exclusive) into lines and
+     * every line into fields.
+     *
+     * @param buffer bytes of the file
+     * @param start position of the first byte
+     * @param end position after the last byte
+     * @param lineNumber number of lines before start
+     * @param handler RowHandler to handle every line
+     * @return number of lines up to end
+     * @exception DataFormatException handle format of the content incorrect error
+     */
+    private int parseLines(ByteBuffer buffer, int start, int end, int lineNumber,
+                           RowHandler handler) throws DataFormatException {
+        int lineStart = start;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int next = lineEnd + 1;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            lineNumber += 1;
+            handler.row(buffer, this.splitFields(buffer, lineStart, lineEnd), lineNumber);
+            lineStart = next;
+        }
+        return lineNumber;
+    }
+
+    /**
+     * This method finds the fields of one line. Like String.split(","), empty fields at the end
+     * of the line are not counted.
+     *
+     * @param buffer bytes of the file
+     * @param lineStart position of the first byte of the line
+     * @param lineEnd position after the last byte of the line
+     * @return number of fields in the line
+     */
+    private int splitFields(ByteBuffer buffer, int lineStart, int lineEnd) {
+        int count = 0;
+        int lastNonEmpty = -1;
+        int fieldBegin = lineStart;
+        for (int i = lineStart; i <= lineEnd; i++) {
+            if (i == lineEnd || buffer.get(i) == ',') {
+                if (count < MAX_FIELDS) {
+                    fieldStart[count] = fieldBegin;
+                    fieldEnd[count] = i;
+                }
+                if (i > fieldBegin) {
+                    lastNonEmpty = count;
+                }
+                count += 1;
+                fieldBegin = i + 1;
+            }
+        }
+        return lastNonEmpty + 1;
+    }
+
+    /**
+     * This method checks whether a field is a 6-digit number.
+     *
+     * @param buffer bytes of the file
+     * @param field index of the field
+     * @return whether the field is a 6-digit number or not
+     */
+    private boolean isId(ByteBuffer buffer, int field) {
+        if (fieldEnd[field] - fieldStart[field] != ID_LENGTH) {
+            return false;
+        }
+        for (int i = fieldStart[field]; i < fieldEnd[field]; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method parses a field which has been checked by isId.
+     *
+     * @param buffer bytes of the file
+     * @param field index of the field
+     * @return numeric value of the 6-digit field
+     */
+    private int parseId(ByteBuffer buffer, int field) {
+        int id = 0;
+        for (int i = fieldStart[field]; i < fieldEnd[field]; i++) {
+            id = id * 10 + (buffer.get(i) - '0');
+        }
+        return id;
+    }
+
+    /**
+     * This method parses a decimal number such as "300.5". Plain decimal numbers with at most
+     * MAX_DIGITS digits are computed exactly from their digits; anything else (longer numbers,
+     * exponents, spaces around the number, "Infinity", ...) is handed to Double.parseDouble, so
+     * every amount Double.valueOf accepts is still accepted.
+     *
+     * @param buffer bytes of the file
+     * @param start position of the first byte of the number
+     * @param end position after the last byte of the number
+     * @return value of the number
+     * @exception NumberFormatException the field is not a number
+     */
+    private double parseAmount(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '+' || buffer.get(i) == '-')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end && digits <= MAX_DIGITS; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits += 1;
+                if (scale >= 0) {
+                    scale += 1;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                break;
+            }
+        }
+        if (i < end || digits == 0 || digits > MAX_DIGITS) {
+            //not a short plain decimal number, let the JDK check and round it
+            return Double.parseDouble(this.string(buffer, start, end,
+                    StandardCharsets.ISO_8859_1));
+        }
+        double value = scale > 0 ? mantissa / POWERS[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * This method checks whether a field is a boolean value. Trailing spaces are ignored.
+     *
+     * @param buffer bytes of the file
+     * @param start position of the first byte of the field
+     * @param end position after the last byte of the field
+     * @return 1 for true, 0 for false and -1 for anything else
+     */
+    private int parseBoolean(ByteBuffer buffer, int start, int end) {
+        while (end > start && buffer.get(end - 1) == ' ') {
+            end--;
+        }
+        if (this.equalsIgnoreCase(buffer, start, end, "true")) {
+            return 1;
+        } else if (this.equalsIgnoreCase(buffer, start, end, "false")) {
+            return 0;
+        }
+        return -1;
+    }
+
+    /**
+     * This method compares a field with a lower case ASCII word and ignores case.
+     *
+     * @param buffer bytes of the file
+     * @param start position of the first byte of the field
+     * @param end position after the last byte of the field
+     * @param word lower case word to compare with
+     * @return whether the field equals the word
+     */
+    private boolean equalsIgnoreCase(ByteBuffer buffer, int start, int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if ((buffer.get(start + i) | 0x20) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method turns some bytes of the file into a String.
+     *
+     * @param buffer bytes of the file
+     * @param start position of the first byte
+     * @param end position after the last byte
+     * @param stringCharset charset of the bytes
+     * @return String of the bytes
+     */
+    private String string(ByteBuffer buffer, int start, int end, Charset stringCharset) {
+        int length = end - start;
+        if (length > bytes.length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        buffer.get(start, bytes, 0, length);
+        return new String(bytes, 0, length, stringCharset);
+    }
+
+    /**
+     * This method creates the exception for a line with a wrong format.
+     *
+     * @param lineNumber number of the line
+     * @return DataFormatException which reports the line number
+     */
+    private DataFormatException formatError(int lineNumber) {
+        return new DataFormatException(String.format("The format of the content is incorrect " +
+                "(%s, line %d). Please check!", fileName, lineNumber));
+    }
+}
@@ -1,13 +1,15 @@
 import java.io.*;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Scanner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 /**
  * This DataProvider class works with data files provided by user. It loads data from the files
- * and stores in HashMap. HashMap members stores every member's id and its Member object.
- * HashMap bills stores every bill's id and its Bill object.
+ * and stores them in two RecordDirectory objects outside the Java heap. RecordDirectory members
+ * stores a Member record for every member's id and RecordDirectory bills stores a Bill record for
+ * every bill's id. getMember and getBill return flyweight views of the records.
  *
  * It also offers function to update bill file. After user saving competitions into a local file,
  * the program will automatically change status of those bills which are used in the competitions
@@ -16,26 +18,32 @@ import java.util.Scanner;
  * @see Member
  * @see Bill
  */
-public class DataProvider implements Serializable {
+public class DataProvider {
     /*
+    @param USED_STATUS constant bytes written over the status of a used bill
+
     @param memberFile path to the member file
     @param billFile   path to the bill file
 
-    @param members    HashMap<String Member ID, Member Member class> stores member data
-    @param bills      HashMap<String Bill ID, Bill Bill class> stores bill data
+    @param members    RecordDirectory of Member records stores member data
+    @param bills      RecordDirectory of Bill records stores bill data
 
-    @param usedBillId ArrayList stores Bill ID which have been used in previous competition
+    @param usedBills  UsedBillIndex stores Bill ID which have been used in previous competition
      */
+    private static final byte[] USED_STATUS = "true ".getBytes(StandardCharsets.US_ASCII);
+
     private String memberFile;
     private String billFile;
 
-    Map<String, Member> members = new HashMap<>();
-    Map<String, Bill> bills = new HashMap<>();
+    RecordDirectory members = new RecordDirectory(Member.RECORD_BYTES);
+    RecordDirectory bills = new RecordDirectory(Bill.RECORD_BYTES);
 
-    ArrayList<String> usedBillId = new ArrayList<>();
+    UsedBillIndex usedBills = new UsedBillIndex();
 
     /**
-     * DataProvider Constructor to reads data from the file and stores in HashMap when initializing.
+     * DataProvider Constructor to reads data from the file and stores in RecordDirectory when
+     * initializing.
+     * The files are parsed by CsvLoader.
      *
      * @param memberFile A path to the member file (e.g., members.csv)
      * @param billFile A path to the bill file (e.g., bills.csv)
@@ -48,91 +56,10 @@ public class DataProvider implements Serializable {
 
         try {
             //read member data from member file
-            try {
-                File newMemberFile = new File(this.getMemberFile());
-                Scanner inputMemberStream = new Scanner(new FileInputStream(newMemberFile));
-
-                while (inputMemberStream.hasNextLine()) {
-                    String[] aMember = inputMemberStream.nextLine().split(",");
-                    String memberId = aMember[0];
-                    String memberName = aMember[1];
-                    String address = aMember[2];
-
-                     //check whether Member ID is valid or not
-                    try {
-                        Integer.valueOf(memberId);
-                    } catch (NumberFormatException e) {
-                        throw new DataFormatException();
-                    }
-
-                    if (memberId.length() == 6) {
-                        Member newMember = new Member();
-                        newMember.setMemberId(memberId);
-                        newMember.setMemberName(memberName);
-                        newMember.setAddress(address);
-                        members.put(memberId, newMember);
-                    } else {
-                        throw new DataFormatException();
-                    }
-                }
-                inputMemberStream.close();
-            } catch (FileNotFoundException e) {
-                throw new DataAccessException();
-            } catch (Exception e) {
-                throw new DataFormatException();
-            }
+            new CsvLoader(this.getMemberFile()).loadMembers(members);
 
             //read bill data from bill file
-            try {
-                File newBillFile = new File(this.getBillFile());
-                Scanner inputBillStream = new Scanner(new FileInputStream(newBillFile));
-                int index = 0;
-
-                while (inputBillStream.hasNextLine()) {
-                    String[] aBill = inputBillStream.nextLine().split(",");
-                    String billId = aBill[0];
-                    String memberId = aBill[1];
-                    String totalAmount = aBill[2];
-                    String usedOrNot = aBill[3];
-                    index += 1;
-
-                    //check whether Member ID is valid or not
-                    if (!this.isNumeric(memberId)) {
-                        throw new DataFormatException();
-                    }
-
-                    //check whether boolean value is valid or not
-                    if (!this.isBoolean(usedOrNot)) {
-                        throw new DataFormatException();
-                    }
-
-                    //check whether Bill ID and total amount is valid or not
-                    try {
-                        Integer.valueOf(billId);
-                        Double.valueOf(totalAmount);
-                    } catch (NumberFormatException e) {
-                        throw new DataFormatException();
-                    }
-
-                    if (billId.length() == 6 && (memberId.length() == 6 ||
-                            memberId.length() == 0)) {
-                        Bill newBill = new Bill();
-                        newBill.setBillId(billId);
-                        newBill.setMemberId(memberId);
-                        newBill.setTotalAmount(Double.parseDouble(totalAmount));
-                        newBill.setUsedOrNot(Boolean.parseBoolean(usedOrNot));
-                        bills.put(billId, newBill);
-                        newBill.setId(index);
-                    } else {
-                        throw new DataFormatException();
-                    }
-                }
-                inputBillStream.close();
-            } catch (FileNotFoundException e) {
-                throw new DataAccessException();
-            } catch (Exception e) {
-                throw new DataFormatException();
-            }
+            new CsvLoader(this.getBillFile()).loadBills(bills);
         } catch (DataAccessException | DataFormatException e) {
             System.out.println(e.getMessage());
             System.exit(0);
@@ -157,82 +84,99 @@ public class DataProvider implements Serializable {
     }
 
     public Member getMember(String id) {
-        return this.members.get(id);
+        return this.getMember(DataProvider.parseId(id));
     }
 
     public Bill getBill(String id) {
-        return this.bills.get(id);
+        return this.getBill(DataProvider.parseId(id));
+    }
+
+    /**
+     * This method finds a member by its numeric Member ID with one index into the directory.
+     *
+     * @param id numeric Member ID
+     * @return Member view of the record, or null if there is no such member
+     */
+    public Member getMember(int id) {
+        int slot = this.members.find(id);
+        return slot < 0 ? null : new Member(this.members, slot);
     }
 
     /**
-     * This method is designed to check whether a string is composed entirely of numbers.
+     * This method finds a bill by its numeric Bill ID with one index into the directory.
      *
-     * @param str String to be checked
-     * @return if str is composed entirely of numbers then return true.
+     * @param id numeric Bill ID
+     * @return Bill view of the record, or null if there is no such bill
      */
-    private boolean isNumeric(String str) {
-        for (int i = str.length(); --i >= 0;) {
-            if (!Character.isDigit(str.charAt(i))){
-                return false;
+    public Bill getBill(int id) {
+        int slot = this.bills.find(id);
+        return slot < 0 ? null : new Bill(this.bills, slot);
+    }
+
+    /**
+     * This method converts a 6-digit Member ID or Bill ID into the number the records are kept
+     * by. Only the ASCII digits 0 to 9 are accepted.
+     *
+     * @param id Member ID or Bill ID
+     * @return numeric ID, or -1 (which no record has) if id is not a 6-digit number
+     */
+    public static int parseId(String id) {
+        if (id == null || id.length() != 6) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
             }
+            value = value * 10 + (c - '0');
         }
-        return true;
+        return value;
     }
 
     /**
-     * This method is designed to check whether a string is boolean value.
+     * This method checks whether a bill has been used, either in the bill file or in this session.
      *
-     * @param str String to be checked
-     * @return if str is boolean value return true
+     * @param bill an existing bill
+     * @return whether the bill has been used or not
      */
-    private boolean isBoolean(String str) {
-        return "true".equalsIgnoreCase(str) || "false".equalsIgnoreCase(str);
+    public boolean isBillUsed(Bill bill) {
+        return this.usedBills.contains(bill.getNumericBillId()) || bill.isUsedOrNot();
+    }
+
+    /**
+     * This method claims an unused bill for a competition. It takes no lock: the claim is a
+     * compare-and-set in usedBills, so when several threads claim the same bill at the same time
+     * exactly one of them succeeds and the bill produces entries only once.
+     *
+     * @param billId numeric Bill ID of an existing bill
+     * @return true if the bill is claimed, false if it has already been used
+     */
+    public boolean tryClaim(int billId) {
+        return !this.getBill(billId).isUsedOrNot() &&
+                this.usedBills.add(billId);
     }
 
     /**
      * This method is designed to update status of some bills which have been used in previous competition.
+     * The status of every used bill is overwritten in place at the position found when the bill
+     * file was loaded. "true " is written over "false", so the file keeps its length and only the
+     * used bills are touched.
      */
     public void updateBillFile() {
-         try {
-             FileInputStream fileIn = new FileInputStream(this.billFile);
-             FileWriter out = null;
-             CharArrayWriter tempStream = new CharArrayWriter();
-
-             //read bill file line by line and track index of each line
-             try (LineNumberReader lineReader =
-                          new LineNumberReader(new InputStreamReader(fileIn))) {
-                 String line;
-                 while ((line = lineReader.readLine()) != null) {
-                     //HashMap<Integer id, String Bill ID> stores used Bill ID and Bill class id
-                     Map<Integer, String> ids = new HashMap<>();
-                     for (String i : this.usedBillId) {
-                         ids.put(getBill(i).getId(), i);
-                     }
-
-                     //check whether current line index is in the ids
-                     //locate the line index of used bill then change status
-                     if (ids.get(lineReader.getLineNumber()) != null) {
-                         line = line.replace("false", "true");
-                     }
-                     tempStream.write(line);
-                     tempStream.append(System.getProperty("line.separator"));
-                 }
-                 //write new bill data into bill file
-                 out = new FileWriter(this.billFile);
-                 tempStream.writeTo(out);
-                 out.flush();
-             } catch (Exception e) {
-                 System.out.println("Something wrong happened while updating bill file.");
-                 System.exit(0);
-             } finally {
-                 fileIn.close();
-                 assert out != null;
-                 out.close();
-                 tempStream.close();
-             }
-         } catch (Exception e) {
-             System.out.println(e.getMessage());
-             System.exit(0);
-         }
+        try (FileChannel channel = FileChannel.open(Paths.get(this.billFile),
+                StandardOpenOption.WRITE)) {
+            ByteBuffer status = ByteBuffer.wrap(USED_STATUS);
+            for (int i = 0; i < this.usedBills.size(); i++) {
+                Bill bill = this.getBill(this.usedBills.get(i));
+                status.rewind();
+                channel.write(status, bill.getStatusOffset());
+            }
+            channel.force(false);
+        } catch (Exception e) {
+            System.out.println("Something wrong happened while updating bill file.");
+            System.exit(0);
+        }
     }
 }
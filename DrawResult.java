@@ -0,0 +1,224 @@
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The DrawResult class stores the winning entries of a competition after its winners have been
+ * drawn. Only entries with a prize are kept, in two primitive arrays ordered by entry ID, so the
+ * memory of a draw grows with the number of winners and not with the number of entries.
+ * The prize of an entry is found by binary search, and topK() lists the entries with the
+ * largest prizes without sorting all of them.
+ *
+ * @see Competition
+ */
+public class DrawResult {
+    /*
+    @param entryIds winning entry IDs in ascending order
+    @param prizes   prize of the winning entry at the same position
+    @param size     number of winning entries
+     */
+    private int[] entryIds;
+    private int[] prizes;
+    private int size = 0;
+
+    /**
+     * DrawResult Constructor creates an empty result.
+     */
+    public DrawResult() {
+        this.entryIds = new int[4];
+        this.prizes = new int[4];
+    }
+
+    /**
+     * This method creates a result from entry IDs and prizes in any order. Entries without a
+     * prize are left out (e.g. the zero prizes which older versions saved for every entry).
+     *
+     * @param entryIds entry IDs
+     * @param prizes prize of the entry at the same position
+     * @param count number of entries in the arrays
+     * @return DrawResult object of the winning entries
+     */
+    public static DrawResult of(int[] entryIds, int[] prizes, int count) {
+        long[] packed = new long[count];
+        int winners = 0;
+        for (int i = 0; i < count; i++) {
+            if (prizes[i] > 0) {
+                packed[winners] = ((long) entryIds[i] << 32) | prizes[i];
+                winners += 1;
+            }
+        }
+        Arrays.sort(packed, 0, winners);
+        DrawResult result = new DrawResult();
+        for (int i = 0; i < winners; i++) {
+            result.add((int) (packed[i] >>> 32), (int) packed[i]);
+        }
+        return result;
+    }
+
+    /**
+     * This method creates a result from a HashMap<Integer Entry ID, Integer prize>.
+     *
+     * @param winnerMap HashMap of the entries and their prizes
+     * @return DrawResult object of the winning entries
+     */
+    public static DrawResult of(Map<Integer, Integer> winnerMap) {
+        int[] entryIds = new int[winnerMap.size()];
+        int[] prizes = new int[winnerMap.size()];
+        int count = 0;
+        for (Map.Entry<Integer, Integer> winner : winnerMap.entrySet()) {
+            entryIds[count] = winner.getKey();
+            prizes[count] = winner.getValue();
+            count += 1;
+        }
+        return DrawResult.of(entryIds, prizes, count);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method returns the entry ID of a winning entry.
+     *
+     * @param index position of the winning entry, from 0 to size() - 1
+     * @return entry ID
+     */
+    public int getEntryId(int index) {
+        return entryIds[index];
+    }
+
+    /**
+     * This method returns the prize of a winning entry.
+     *
+     * @param index position of the winning entry, from 0 to size() - 1
+     * @return prize
+     */
+    public int getPrize(int index) {
+        return prizes[index];
+    }
+
+    /**
+     * This method adds a winning entry. Entries must be added in ascending order of entry ID.
+     *
+     * @param entryId entry ID larger than every entry ID added before
+     * @param prize prize of the entry, larger than 0
+     */
+    public void add(int entryId, int prize) {
+        if (size > 0 && entryId <= entryIds[size - 1]) {
+            throw new IllegalArgumentException("Entries must be added in ascending order.");
+        }
+        if (size == entryIds.length) {
+            entryIds = Arrays.copyOf(entryIds, size * 2);
+            prizes = Arrays.copyOf(prizes, size * 2);
+        }
+        entryIds[size] = entryId;
+        prizes[size] = prize;
+        size += 1;
+    }
+
+    /**
+     * This method returns the prize of an entry.
+     *
+     * @param entryId entry ID
+     * @return prize of the entry, 0 if it has not won
+     */
+    public int prizeOf(int entryId) {
+        int index = Arrays.binarySearch(entryIds, 0, size, entryId);
+        return index < 0 ? 0 : prizes[index];
+    }
+
+    /**
+     * This method lists the winning entries with the largest prizes. Entries with the same prize
+     * are listed by entry ID. A heap of k positions is kept while the result is scanned once, so
+     * only k entries are ever sorted.
+     *
+     * @param k most entries to list
+     * @return positions (for getEntryId and getPrize) of at most k entries, largest prize first
+     */
+    public int[] topK(int k) {
+        int count = Math.min(k, size);
+        if (count <= 0) {
+            return new int[0];
+        }
+        //min-heap of positions, the root is the smallest of the k largest prizes
+        int[] heap = new int[count];
+        int heapSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (heapSize < count) {
+                heap[heapSize] = i;
+                this.siftUp(heap, heapSize);
+                heapSize += 1;
+            } else if (this.before(i, heap[0])) {
+                heap[0] = i;
+                this.siftDown(heap, heapSize);
+            }
+        }
+
+        //take the root out repeatedly to list the entries from the back
+        int[] top = new int[count];
+        for (int i = count - 1; i >= 0; i--) {
+            top[i] = heap[0];
+            heapSize -= 1;
+            heap[0] = heap[heapSize];
+            this.siftDown(heap, heapSize);
+        }
+        return top;
+    }
+
+    /**
+     * This method compares two winning entries by prize (larger first) and entry ID.
+     *
+     * @param a position of an entry
+     * @param b position of another entry
+     * @return whether entry a is listed before entry b
+     */
+    private boolean before(int a, int b) {
+        return prizes[a] > prizes[b] || (prizes[a] == prizes[b] && a < b);
+    }
+
+    /**
+     * This method moves a new position up to its place in the heap.
+     *
+     * @param heap heap of positions
+     * @param index position of the new element in heap
+     */
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!this.before(heap[parent], heap[index])) {
+                return;
+            }
+            int temp = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = temp;
+            index = parent;
+        }
+    }
+
+    /**
+     * This method moves the root down to its place in the heap.
+     *
+     * @param heap heap of positions
+     * @param heapSize number of elements in heap
+     */
+    private void siftDown(int[] heap, int heapSize) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < heapSize && this.before(heap[smallest], heap[left])) {
+                smallest = left;
+            }
+            if (right < heapSize && this.before(heap[smallest], heap[right])) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            int temp = heap[smallest];
+            heap[smallest] = heap[index];
+            heap[index] = temp;
+            index = smallest;
+        }
+    }
+}
@@ -9,6 +9,7 @@ public class Entry implements Serializable {
     @param entryId entry identifier
     @param prize   entry prize in RandomPickCompetition
      */
+    private static final long serialVersionUID = 6559183736120560224L;
     private int entryId;
     private int prize;
 
@@ -0,0 +1,23 @@
+/**
+ * This EntryRejectedException class handles a bill or its entries which cannot be added to a
+ * competition.
+ */
+public class EntryRejectedException extends Exception {
+    private static final long serialVersionUID = 5083158461175993724L;
+
+    /**
+     * This Constructor provides default error message.
+     */
+    public EntryRejectedException() {
+        super("The entries cannot be added to the competition. Please check!");
+    }
+
+    /**
+     * Overload Constructor provides self-defined error message.
+     *
+     * @param aMessage self-defined error message
+     */
+    public EntryRejectedException(String aMessage) {
+        super(aMessage);
+    }
+}
@@ -0,0 +1,101 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * The EntrySampler class picks k different positions out of n (e.g. the winning entries of a
+ * RandomPickCompetition) in pick order. Both ways of picking take O(k) time and memory,
+ * however large n is.
+ * 1.pickLegacy draws nextInt(n) until it has k different positions, exactly like older versions
+ *   did, so a seeded Random gives the same picks as before. A repeated position is only checked
+ *   against the positions picked so far.
+ * 2.pick is a partial Fisher-Yates shuffle over a virtual array 0..n-1 which only remembers the
+ *   swapped positions, so it needs exactly k random numbers.
+ *
+ * @see RandomPickCompetition
+ */
+public class EntrySampler {
+    /**
+     * This method picks k different positions the way older versions did.
+     *
+     * @param random random number stream to draw with
+     * @param n number of positions (0 to n - 1)
+     * @param k number of positions to pick, at most n
+     * @return picked positions in pick order
+     */
+    public static int[] pickLegacy(RandomGenerator random, int n, int k) {
+        EntrySampler.checkArguments(n, k);
+        int[] picks = new int[k];
+        int count = 0;
+        while (count < k) {
+            int position = random.nextInt(n);
+            if (EntrySampler.indexOf(picks, count, position) < 0) {
+                picks[count] = position;
+                count++;
+            }
+        }
+        return picks;
+    }
+
+    /**
+     * This method picks k different positions with a sparse partial Fisher-Yates shuffle. Every
+     * ordered selection of k positions is equally likely.
+     *
+     * @param random random number stream to draw with
+     * @param n number of positions (0 to n - 1)
+     * @param k number of positions to pick, at most n
+     * @return picked positions in pick order
+     */
+    public static int[] pick(RandomGenerator random, int n, int k) {
+        EntrySampler.checkArguments(n, k);
+        int[] picks = new int[k];
+        //positions of the virtual array which hold another value than their own
+        int[] swappedKeys = new int[k];
+        int[] swappedValues = new int[k];
+        int swapped = 0;
+        for (int i = 0; i < k; i++) {
+            int j = i + random.nextInt(n - i);
+            int jIndex = EntrySampler.indexOf(swappedKeys, swapped, j);
+            int iIndex = EntrySampler.indexOf(swappedKeys, swapped, i);
+            picks[i] = jIndex < 0 ? j : swappedValues[jIndex];
+            int valueAtI = iIndex < 0 ? i : swappedValues[iIndex];
+
+            //position i is never read again, so only position j needs the value of i
+            if (jIndex < 0) {
+                swappedKeys[swapped] = j;
+                swappedValues[swapped] = valueAtI;
+                swapped++;
+            } else {
+                swappedValues[jIndex] = valueAtI;
+            }
+        }
+        return picks;
+    }
+
+    /**
+     * This method checks the arguments of a pick.
+     *
+     * @param n number of positions
+     * @param k number of positions to pick
+     */
+    private static void checkArguments(int n, int k) {
+        if (k < 0 || k > n) {
+            throw new IllegalArgumentException("Cannot pick " + k + " of " + n + " entries.");
+        }
+    }
+
+    /**
+     * This method finds a value in the first count elements of a small array.
+     *
+     * @param values array to search
+     * @param count number of elements in use
+     * @param value value to find
+     * @return index of the value, or -1 if it is not found
+     */
+    private static int indexOf(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
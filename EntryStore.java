@@ -0,0 +1,130 @@
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The EntryStore class stores the entries of a competition in parallel primitive arrays instead
+ * of one HashMap per entry attribute. Entry IDs are dense and start at 1, so entry ID i is kept
+ * at index (i - 1) of the arrays.
+ * 1.ranks stores the numbers of every entry as its CombinationCodec rank plus 1, so every entry
+ *   takes 4 bytes and 0 means an entry without numbers (e.g. a new auto entry).
+ * 2.bills stores the numeric Bill ID which every entry belongs to.
+ * 3.manual stores one bit per entry, set for manual entries and clear for auto entries.
+ *
+ * The arrays are split into pages of PAGE_SIZE entries. Growing the store only allocates a new
+ * page, existing entries are never copied.
+ *
+ * @see Competition
+ * @see NumbersEntry
+ */
+public class EntryStore implements Serializable {
+    /*
+    @param PAGE_SHIFT constant represents log2 of the number of entries per page
+    @param PAGE_SIZE  constant represents number of entries per page
+    @param PAGE_MASK  constant represents mask of the index inside a page
+
+    @param ranks      pages of CombinationCodec ranks plus 1
+    @param bills      pages of numeric Bill IDs
+    @param manual     pages of manual(1)/auto(0) bits
+    @param size       number of entries stored
+     */
+    private static final long serialVersionUID = 8813205604351134026L;
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private int[][] ranks = new int[0][];
+    private int[][] bills = new int[0][];
+    private long[][] manual = new long[0][];
+    private int size = 0;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method adds a new entry at the end of the store.
+     *
+     * @param rank CombinationCodec rank of the numbers of the entry (NO_NUMBERS for none)
+     * @param billId numeric Bill ID which the entry belongs to
+     * @param isManual whether the entry is a manual one
+     * @return entry ID of the new entry
+     */
+    public int add(int rank, int billId, boolean isManual) {
+        int index = size;
+        int page = index >>> PAGE_SHIFT;
+        if (page == ranks.length) {
+            this.addPage();
+        }
+        int offset = index & PAGE_MASK;
+        ranks[page][offset] = rank + 1;
+        bills[page][offset] = billId;
+        if (isManual) {
+            manual[page][offset >>> 6] |= 1L << offset;
+        }
+        size += 1;
+        return size;
+    }
+
+    /**
+     * This method adds a batch of auto entries of one bill at the end of the store. The new
+     * entries have no numbers until they are filled in with setMask.
+     *
+     * @param count number of entries to add
+     * @param billId numeric Bill ID which the entries belong to
+     * @return entry ID of the first new entry
+     */
+    public int addAll(int count, int billId) {
+        int firstId = size + 1;
+        int end = size + count;
+        while (ranks.length << PAGE_SHIFT < end) {
+            this.addPage();
+        }
+        for (int index = size; index < end; ) {
+            int page = index >>> PAGE_SHIFT;
+            int offset = index & PAGE_MASK;
+            int length = Math.min(PAGE_SIZE - offset, end - index);
+            Arrays.fill(bills[page], offset, offset + length, billId);
+            index += length;
+        }
+        size = end;
+        return firstId;
+    }
+
+    public void setMask(int entryId, long mask) {
+        int index = entryId - 1;
+        ranks[index >>> PAGE_SHIFT][index & PAGE_MASK] = CombinationCodec.rank(mask) + 1;
+    }
+
+    public long getMask(int entryId) {
+        return CombinationCodec.toMask(this.getRank(entryId));
+    }
+
+    public int getRank(int entryId) {
+        int index = entryId - 1;
+        return ranks[index >>> PAGE_SHIFT][index & PAGE_MASK] - 1;
+    }
+
+    public int getBillId(int entryId) {
+        int index = entryId - 1;
+        return bills[index >>> PAGE_SHIFT][index & PAGE_MASK];
+    }
+
+    public boolean isManual(int entryId) {
+        int index = entryId - 1;
+        int offset = index & PAGE_MASK;
+        return (manual[index >>> PAGE_SHIFT][offset >>> 6] & (1L << offset)) != 0;
+    }
+
+    /**
+     * This method allocates one more page for every array.
+     */
+    private void addPage() {
+        int pages = ranks.length + 1;
+        ranks = Arrays.copyOf(ranks, pages);
+        bills = Arrays.copyOf(bills, pages);
+        manual = Arrays.copyOf(manual, pages);
+        ranks[pages - 1] = new int[PAGE_SIZE];
+        bills[pages - 1] = new int[PAGE_SIZE];
+        manual[pages - 1] = new long[PAGE_SIZE >>> 6];
+    }
+}
@@ -1,5 +1,8 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * The LuckyNumbersCompetition class is the subclass of Competition. It is the class to handle
@@ -18,32 +21,170 @@ import java.util.*;
  */
 public class LuckyNumbersCompetition extends Competition implements Serializable {
     /*
-    @param entriesMap    HashMap<Integer Entry ID, int[] numbers> stores entries
-    @param manualAutoMap HashMap<Integer Entry ID, Integer status> stores manual(1) and auto(0) entry
+    @param PRIZE_TABLE        constant Array maps number of matched numbers to its prize
+    @param PARALLEL_THRESHOLD constant represents smallest auto entry batch filled in parallel
+    @param PARALLEL_CHUNK     constant represents number of auto entries filled by one task
+
+    @param MIN_MATCHES        constant represents fewest matched numbers which win a prize
+
+    @param generator          NumbersGenerator shared by all auto entries of this competition
+    @param numberIndex        NumberIndex of the entries, built when it is first needed
+    @param numberCounts       numberCounts[n - 1] is the number of entries which contain number n
+    @param countedEntries     number of entries counted in numberCounts (entry IDs 1 to it)
+
+    Numbers and manual(1)/auto(0) status of every entry are kept in entryStore.
+     */
+    private static final long serialVersionUID = 3938416465305138404L;
+    private static final int[] PRIZE_TABLE = {0, 0, 50, 100, 500, 1000, 5000, 50000};
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int PARALLEL_CHUNK = 1 << 13;
+    private static final int MIN_MATCHES = 2;
+
+    private transient NumbersGenerator generator;
+    private transient NumberIndex numberIndex;
+    private transient long[] numberCounts;
+    private transient int countedEntries;
+
+    /**
+     * This method returns the NumbersGenerator of this competition and creates it when needed
+     * (e.g. after the competition is loaded from a file).
+     *
+     * @return NumbersGenerator object of this competition
+     */
+    private NumbersGenerator getGenerator() {
+        if (generator == null) {
+            generator = new NumbersGenerator();
+        }
+        return generator;
+    }
+
+    /**
+     * This method returns the NumberIndex of this competition. The index is created when it is
+     * first needed and then only extended by the entries added since, because entries never
+     * change once they are created.
+     *
+     * @return NumberIndex object of all entries of this competition
+     */
+    private NumberIndex getNumberIndex() {
+        if (numberIndex == null) {
+            numberIndex = new NumberIndex();
+        }
+        for (int i = numberIndex.size() + 1; i <= entryStore.size(); i++) {
+            numberIndex.add(i, entryStore.getMask(i));
+        }
+        return numberIndex;
+    }
+
+    /**
+     * This method returns how many entries contain each number. The counts are kept up to date
+     * as auto entries are generated; entries which are not counted yet (manual entries, or all
+     * entries after the competition is loaded from a file) are counted here.
+     *
+     * @return numberCounts[n - 1] is the number of entries which contain number n
+     */
+    private long[] getNumberCounts() {
+        if (numberCounts == null) {
+            numberCounts = new long[35];
+            countedEntries = 0;
+        }
+        for (int i = countedEntries + 1; i <= entryStore.size(); i++) {
+            for (long rest = entryStore.getMask(i); rest != 0; rest &= rest - 1) {
+                numberCounts[Long.numberOfTrailingZeros(rest)] += 1;
+            }
+        }
+        countedEntries = entryStore.size();
+        return numberCounts;
+    }
+
+    /**
+     * This method reads a competition saved with Java serialization. Competitions saved by older
+     * versions keep their numbers in entriesMap and manualAutoMap, which are moved into
+     * entryStore.
+     *
+     * @param in ObjectInputStream to read from
+     * @exception IOException stream cannot be read
+     * @exception ClassNotFoundException class of a field cannot be found
      */
-    Map<Integer, int[]> entriesMap = new HashMap<>();
-    Map<Integer, Integer> manualAutoMap = new HashMap<>();
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        Map<Integer, int[]> entriesMap =
+                (Map<Integer, int[]>) Competition.legacyField(fields, "entriesMap");
+        Map<Integer, Long> masks = new HashMap<>();
+        if (entriesMap != null) {
+            for (Map.Entry<Integer, int[]> entry : entriesMap.entrySet()) {
+                masks.put(entry.getKey(), NumbersEntry.toMask(entry.getValue()));
+            }
+        }
+        this.restoreLegacyEntries(masks,
+                (Map<Integer, Integer>) Competition.legacyField(fields, "manualAutoMap"));
+    }
 
     /**
-     * This method is used to generate new objects of NumbersEntry class.
+     * This method generates a batch of auto entries of one bill straight into entryStore.
+     * Batches of at least PARALLEL_THRESHOLD entries are filled in parallel, every chunk of
+     * PARALLEL_CHUNK entries with its own random number stream from RandomProvider: the stream of
+     * its thread in Normal mode, and in Testing mode a stream keyed by the first entry ID of the
+     * chunk, so the numbers do not depend on how the chunks are scheduled. With the legacy
+     * algorithm each entry is still seeded with its entry ID minus 1 in Testing mode.
      *
-     * @return an object of NumbersEntry class
+     * @param billID Bill ID which the entries belong to
+     * @param count number of auto entries to generate
+     * @param mode mode of current Competition object
+     * @return entry ID of the first generated entry
      */
-    private NumbersEntry addNewEntry() {
-        NumbersEntry newEntry = new NumbersEntry();
-        this.setEntryID(this.getEntryID() + 1);
-        return newEntry;
+    public synchronized int addAutoEntries(String billID, int count, char mode) {
+        RandomProvider provider = RandomProvider.get();
+        boolean keyed = mode == 'T' && !provider.isLegacy();
+        long[] counts = this.getNumberCounts();
+        int firstId = entryStore.addAll(count, Integer.parseInt(billID));
+        if (count >= PARALLEL_THRESHOLD) {
+            int chunks = (count + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int from = firstId + chunk * PARALLEL_CHUNK;
+                int to = Math.min(from + PARALLEL_CHUNK, firstId + count);
+                NumbersGenerator chunkGenerator = new NumbersGenerator(keyed ?
+                        provider.seeded(this.getId(), from) : provider.current());
+                this.fillAutoEntries(chunkGenerator, from, to, mode, counts);
+            });
+        } else if (keyed) {
+            this.fillAutoEntries(new NumbersGenerator(provider.seeded(this.getId(), firstId)),
+                    firstId, firstId + count, mode, counts);
+        } else {
+            this.fillAutoEntries(this.getGenerator(), firstId, firstId + count, mode, counts);
+        }
+        countedEntries = firstId + count - 1;
+        this.setEntryID(this.getEntryID() + count);
+        return firstId;
     }
 
     /**
-     * This method is used to generate new objects of AutoNumbersEntry class.
+     * This method fills in the numbers of the auto entries from entry ID "from" (inclusive) to
+     * entry ID "to" (exclusive), and adds their numbers to the number counts.
      *
-     * @return an object of AutoNumbersEntry class
+     * @param generator NumbersGenerator object to draw numbers with
+     * @param from first entry ID to fill in
+     * @param to entry ID after the last one to fill in
+     * @param mode mode of current Competition object
+     * @param totals number counts of the competition, shared by the parallel chunks
      */
-    private AutoNumbersEntry addNewAutoEntry() {
-        AutoNumbersEntry newAutoEntry = new AutoNumbersEntry();
-        this.setEntryID(this.getEntryID() + 1);
-        return newAutoEntry;
+    private void fillAutoEntries(NumbersGenerator generator, int from, int to, char mode,
+                                 long[] totals) {
+        boolean seeded = mode == 'T' && RandomProvider.get().isLegacy();
+        long[] counts = new long[totals.length];
+        for (int entryId = from; entryId < to; entryId++) {
+            long mask = seeded ? generator.seededMask(entryId - 1) : generator.nextMask();
+            entryStore.setMask(entryId, mask);
+            for (long rest = mask; rest != 0; rest &= rest - 1) {
+                counts[Long.numberOfTrailingZeros(rest)] += 1;
+            }
+        }
+        //merge once per chunk, so the parallel chunks seldom wait for each other
+        synchronized (totals) {
+            for (int n = 0; n < totals.length; n++) {
+                totals[n] += counts[n];
+            }
+        }
     }
 
     /**
@@ -103,27 +244,32 @@ public class LuckyNumbersCompetition extends Competition implements Serializable
     /**
      * This method is used to print all entries which are created in current competition.
      *
-     * @param entriesMap HashMap<Integer Entry ID, int[] numbers> to store entries
+     * @param entryStore EntryStore to store entries
      * @param manualEntries numbers of manually generated entries
      * @param entryNum total numbers of entries
      * @param startID first entryID for current entry set
      */
-    private void printEntries(Map<Integer, int[]> entriesMap, int manualEntries,
+    private void printEntries(EntryStore entryStore, int manualEntries,
                               int entryNum, int startID) {
-        System.out.println("The following entries have been added:");
-        for (int i = startID; i < startID + manualEntries; i++) {
-            System.out.printf("Entry ID: %-7dNumbers:", i);
-            for (int m = 0; m < entriesMap.get(i).length; m++) {
-                System.out.printf("%3d", entriesMap.get(i)[m]);
-            }
-            System.out.println();
+        OutputSink out = this.getOutput();
+        out.println("The following entries have been added:");
+        for (int i = startID; i < startID + entryNum; i++) {
+            out.print("Entry ID: ").printLeft(i, 7).print("Numbers:");
+            this.printNumbers(out, entryStore.getMask(i));
+            out.println(i < startID + manualEntries ? "" : " [Auto]");
         }
-        for (int j = startID + manualEntries; j < startID + entryNum; j++) {
-            System.out.printf("Entry ID: %-7dNumbers:", j);
-            for (int m = 0; m < entriesMap.get(j).length; m++) {
-                System.out.printf("%3d", entriesMap.get(j)[m]);
-            }
-            System.out.println(" [Auto]");
+        out.flush();
+    }
+
+    /**
+     * This method appends the numbers of an entry to an OutputSink, 3 chars for each number.
+     *
+     * @param out OutputSink to append to
+     * @param mask numbers bitmask of the entry
+     */
+    private void printNumbers(OutputSink out, long mask) {
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            out.printRight(Long.numberOfTrailingZeros(rest) + 1, 3);
         }
     }
 
@@ -145,7 +291,7 @@ public class LuckyNumbersCompetition extends Competition implements Serializable
 
         System.out.printf("This bill ($%s) is eligible for %d entries. " +
                         "How many manual entries did the customer fill up?: \n",
-                dataProvider.getBill(billID).getTotalAmount(), entryNum);
+                totalAmount, entryNum);
 
         //loop to check the quantity of manual entries
         while (true) {
@@ -167,7 +313,8 @@ public class LuckyNumbersCompetition extends Competition implements Serializable
             }
         }
 
-        //loop to add manual entries
+        //loop to take manual entries
+        long[] manualMasks = new long[manualEntries];
         int loop1 = 0;
         while (loop1 < manualEntries) { //loop for proper times
             while (true) {
@@ -194,12 +341,7 @@ public class LuckyNumbersCompetition extends Competition implements Serializable
                         } else if (this.isDuplicated(tempNumbers)) {
                             System.out.println("Invalid input! All numbers must be different!");
                         } else {
-                            NumbersEntry newEntry = this.addNewEntry();
-                            newEntry.setEntryId(this.getEntryID());
-                            newEntry.setNumbers(tempNumbers);
-                            entriesMap.put(newEntry.getEntryId(), newEntry.getNumbers()); //store entryID and numbers
-                            billMap.put(this.getEntryID(), billID); //store entryID and Bill ID
-                            manualAutoMap.put(this.getEntryID(), 1); //mark this entry as a manual one
+                            manualMasks[loop1] = NumbersEntry.toMask(tempNumbers);
                             break;
                         }
                     }
@@ -211,32 +353,39 @@ public class LuckyNumbersCompetition extends Competition implements Serializable
             loop1 += 1;
         }
 
-        //loop to add auto entries
-        int loop2 = 0;
-        while (loop2 < entryNum - manualEntries) { //loop for proper times
-            AutoNumbersEntry newAutoEntry = this.addNewAutoEntry();
-            newAutoEntry.setEntryId(this.getEntryID());
-
-            //check program running mode
-            if (mode == 'T') {
-                newAutoEntry.createNumbers(newAutoEntry.getEntryId() - 1);
-            } else {
-                newAutoEntry.createNumbers();
-            }
+        //add manual and auto entries in one batch
+        int firstId = this.createEntries(billID, entryNum, manualMasks, mode);
+        this.printEntries(entryStore, manualEntries, entryNum, firstId); //print entries
+    }
 
-            //store things
-            entriesMap.put(newAutoEntry.getEntryId(), newAutoEntry.getNumbers());
-            billMap.put(this.getEntryID(), billID);
-            manualAutoMap.put(this.getEntryID(), 0);
-            loop2 += 1;
+    /**
+     * This method overrides the abstract methods in the parent class Competition. The manual
+     * entries are stored first and marked as manual ones, then the rest are added as auto entries.
+     *
+     * @param billID Bill ID which the entries belong to
+     * @param entryNum total number of entries of the bill
+     * @param manualMasks numbers bitmasks of the manual entries (at most entryNum)
+     * @param mode mode of current Competition object
+     * @return entry ID of the first created entry
+     * @see Competition
+     */
+    @Override
+    public synchronized int createEntries(String billID, int entryNum, long[] manualMasks,
+                                          char mode) {
+        int firstId = entryStore.size() + 1;
+        for (long mask : manualMasks) {
+            entryStore.add(CombinationCodec.rank(mask), Integer.parseInt(billID), true);
         }
-        this.printEntries(entriesMap, manualEntries, entryNum, this.getStartID()); //print entries
-        this.setStartID(this.getStartID() + entryNum);
-        this.addMoreEntries(keyboard, dataProvider, mode);
+        this.setEntryID(this.getEntryID() + manualMasks.length);
+        this.addAutoEntries(billID, entryNum - manualMasks.length, mode);
+        this.setStartID(firstId + entryNum);
+        return firstId;
     }
 
     /**
      * This method is designed to calculate the prize with the winner entry and a normal entry.
+     * Both entries are bitmasks, so the number of same numbers is the bitCount of their
+     * intersection and the prize is looked up in PRIZE_TABLE.
      * Here are different levels of prizes.
      * 1.7 numbers in common: 50000 points
      * 2.6 numbers in common: 5000  points
@@ -245,33 +394,76 @@ public class LuckyNumbersCompetition extends Competition implements Serializable
      * 5.3 numbers in common: 100   points
      * 6.2 numbers in common: 50    points
      *
-     * @param winner numbers array of the winner entry
-     * @param normal numbers array of the normal entry
+     * @param winner numbers bitmask of the winner entry
+     * @param normal numbers bitmask of the normal entry
      * @return prize of the normal entry
      */
-    private int prize(int[] winner,int[] normal) {
-        int count = 0; //number of same numbers
-        int prize = 0;
-
-        //count number of same item
-        for (int k : winner) {
-            for (int i : normal) {
-                if (k == i) {
-                    count += 1;
-                }
-            }
+    static int prize(long winner, long normal) {
+        return PRIZE_TABLE[Long.bitCount(winner & normal)];
+    }
+
+    /**
+     * This method counts the entries by how many numbers they share with a set of lucky numbers,
+     * e.g. to check a draw or to try other lucky numbers. Nothing in the competition is changed.
+     *
+     * @param luckyMask numbers bitmask of 7 lucky numbers
+     * @return counts[k] is the number of entries with exactly k lucky numbers (k from 0 to 7)
+     */
+    public synchronized long[] matchHistogram(long luckyMask) {
+        return this.getNumberIndex().matchHistogram(luckyMask);
+    }
+
+    /**
+     * This method counts in one pass how many entries picked the same numbers as an earlier
+     * entry, by the CombinationCodec rank which entryStore keeps for every entry.
+     *
+     * @return CombinationCodec.DuplicateCounter of all entries
+     */
+    public synchronized CombinationCodec.DuplicateCounter countDuplicatePicks() {
+        CombinationCodec.DuplicateCounter counter = new CombinationCodec.DuplicateCounter();
+        for (int i = 1; i <= entryStore.size(); i++) {
+            counter.add(entryStore.getRank(i));
         }
+        return counter;
+    }
+
+    /**
+     * This method estimates the prizes of the next draw before it happens, from the number counts
+     * which are kept as entries are added: the expected winners of every prize tier over all
+     * possible draws, which needs no pass over the entries, and the exact winners if the 7 most
+     * picked numbers are drawn, which are counted by the NumberIndex (built on the first call).
+     *
+     * @return PrizeLiability object of all entries of this competition
+     */
+    public synchronized PrizeLiability estimateLiability() {
+        long[] counts = this.getNumberCounts().clone();
+        long hotMask = PrizeLiability.hotMask(counts);
+        return new PrizeLiability(entryStore.size(), PRIZE_TABLE.clone(), counts, hotMask,
+                this.getNumberIndex().matchHistogram(hotMask));
+    }
 
-        //convert count to prize
-        switch (count) {
-            case 7 -> prize = 50000;
-            case 6 -> prize = 5000;
-            case 5 -> prize = 1000;
-            case 4 -> prize = 500;
-            case 3 -> prize = 100;
-            case 2 -> prize = 50;
+    /**
+     * This method finds the winning entries for a set of lucky numbers without changing the
+     * competition, so other lucky numbers (e.g. of another seed) can be tried on the same
+     * entries. Only entries with at least MIN_MATCHES lucky numbers are taken from the
+     * NumberIndex, and every member keeps the entry with the largest prize only.
+     *
+     * @param luckyMask numbers bitmask of 7 lucky numbers
+     * @param dataProvider DataProvider object to work with data files
+     * @return DrawResult object of the winning entries
+     */
+    public synchronized DrawResult evaluateDraw(long luckyMask, DataProvider dataProvider) {
+        WinnerResolver resolver = new WinnerResolver();
+        this.getNumberIndex().forEachMatch(luckyMask, MIN_MATCHES, (entryId, matches) ->
+                resolver.offer(dataProvider.getBill(this.getEntryBillId(entryId))
+                        .getNumericMemberId(), entryId, PRIZE_TABLE[matches]));
+
+        BitSet winners = resolver.winners();
+        DrawResult result = new DrawResult();
+        for (int i = winners.nextSetBit(0); i >= 0; i = winners.nextSetBit(i + 1)) {
+            result.add(i, prize(luckyMask, entryStore.getMask(i)));
         }
-        return prize;
+        return result;
     }
 
     /**
@@ -281,68 +473,51 @@ public class LuckyNumbersCompetition extends Competition implements Serializable
      * @param mode mode of current Competition object
      */
     @Override
-    public void drawWinners(DataProvider dataProvider, char mode) {
-        this.printCompetitionInfo();
+    public synchronized void drawWinners(DataProvider dataProvider, char mode) {
+        OutputSink out = this.getOutput();
+        this.printCompetitionInfo(out);
         AutoNumbersEntry winnerAutoEntry = new AutoNumbersEntry();
 
-        if (mode == 'T') {
-            winnerAutoEntry.createNumbers(this.getId());
+        RandomProvider provider = RandomProvider.get();
+        if (mode == 'T' && provider.isLegacy()) {
+            winnerAutoEntry.createNumbers(this.getGenerator(), this.getId());
+        } else if (mode == 'T') {
+            winnerAutoEntry.createNumbers(new NumbersGenerator(
+                    provider.seeded(this.getId(), RandomProvider.DRAW_KEY)));
         } else {
-            winnerAutoEntry.createNumbers();
+            winnerAutoEntry.createNumbers(this.getGenerator());
         }
 
         //print winner entry
         this.setWinnerEntry(winnerAutoEntry.getNumbers());
-        System.out.print("Lucky Numbers:");
+        out.print("Lucky Numbers:");
         for (int i : this.getWinnerEntry()) {
-            System.out.printf("%3d", i);
+            out.printRight(i, 3);
         }
-        System.out.println(" [Auto]");
+        out.println(" [Auto]");
 
         //print entries which win prize
-        System.out.println("Winning entries:");
-        //put the prize of every entry into winnerMap
-        for (int i = 1; i <= entriesMap.size(); i++) {
-            int prize = this.prize(this.getWinnerEntry(), entriesMap.get(i));
-            winnerMap.put(i, prize);
-        }
-
-        //update winnerMap
-        //every entry keeps the largest prize only
-        for (int i = 1; i <= winnerMap.size(); i++) {
-            int temPrize = winnerMap.get(i);
-            for (int j = i + 1; j <= winnerMap.size(); j++) {
-                if (dataProvider.getBill(billMap.get(j)).getMemberId().equals(
-                        dataProvider.getBill(billMap.get(i)).getMemberId())) {
-                    if (temPrize >= winnerMap.get(j)) {
-                        winnerMap.replace(j, 0);
-                    } else {
-                        winnerMap.replace(i, 0);
-                    }
-                }
-            }
-        }
+        out.println("Winning entries:");
+        //keep the winners in drawResult
+        long winnerMask = winnerAutoEntry.getNumbersMask();
+        drawResult = this.evaluateDraw(winnerMask, dataProvider);
 
         //print winner entries
-        for (int i = 1; i <= winnerMap.size(); i++) {
-            if (winnerMap.get(i) > 0) {
-                this.setWinnerNum(this.getWinnerNum() + 1);
-                this.setTotalPrizes(this.getTotalPrizes() + winnerMap.get(i));
-
-                String billID = billMap.get(i);
-                String memberID = dataProvider.getBill(billID).getMemberId();
-                System.out.printf("Member ID: %s, Member Name: %s, Prize: %-5d\n", memberID,
-                        dataProvider.getMember(memberID).getMemberName(), winnerMap.get(i));
-                System.out.printf("--> Entry ID: %d, Numbers:", i);
-                for (int j = 0; j < entriesMap.get(i).length; j++) {
-                    System.out.printf("%3d", entriesMap.get(i)[j]);
-                }
-                if (manualAutoMap.get(i) == 0) {
-                    System.out.println(" [Auto]");
-                } else {
-                    System.out.println();
-                }
-            }
+        for (int w = 0; w < drawResult.size(); w++) {
+            int i = drawResult.getEntryId(w);
+            int prize = drawResult.getPrize(w);
+            this.setWinnerNum(this.getWinnerNum() + 1);
+            this.setTotalPrizes(this.getTotalPrizes() + prize);
+
+            Bill bill = dataProvider.getBill(this.getEntryBillId(i));
+            out.print("Member ID: ").print(bill.getMemberId())
+                    .print(", Member Name: ")
+                    .print(dataProvider.getMember(bill.getNumericMemberId()).getMemberName())
+                    .print(", Prize: ").printLeft(prize, 5).print("\n");
+            out.print("--> Entry ID: ").print(i).print(", Numbers:");
+            this.printNumbers(out, entryStore.getMask(i));
+            out.println(entryStore.isManual(i) ? "" : " [Auto]");
         }
+        out.flush();
     }
 }
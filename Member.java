@@ -1,39 +1,56 @@
+import java.nio.charset.Charset;
+
 /**
  * This Member class provides basic structure of a Member.
  * Each member has a member identifier, a name and an email address.
+ *
+ * A Member is a flyweight view of one fixed-width record in the RecordDirectory of DataProvider,
+ * which keeps the members outside the Java heap. The record layout is:
+ * 1.bytes 0 to 3: numeric Member ID.
+ * 2.bytes 4 to 11: position and length of the name in the text area.
+ * 3.bytes 12 to 19: position and length of the address in the text area.
+ * Names and addresses are kept as the bytes of the member file and decoded when they are read.
+ *
+ * @see RecordDirectory
  */
 public class Member {
     /*
-    @param memberId   Member ID
-    @param memberName Member name
-    @param address    Member address
+    @param NAME         constant represents position of the name in a record
+    @param ADDRESS      constant represents position of the address in a record
+    @param RECORD_BYTES constant represents width of a record
+
+    @param directory    RecordDirectory which keeps the record
+    @param slot         slot of the record
      */
-    private String memberId;
-    private String memberName;
-    private String address;
+    static final int NAME = 4;
+    static final int ADDRESS = 12;
+    static final int RECORD_BYTES = 20;
 
-    //setters and getters
-    public void setMemberId(String memberId) {
-        this.memberId = memberId;
-    }
+    private final RecordDirectory directory;
+    private final int slot;
 
-    public String getMemberId() {
-        return memberId;
+    /**
+     * Member Constructor.
+     *
+     * @param directory RecordDirectory which keeps the record
+     * @param slot slot of the record
+     */
+    Member(RecordDirectory directory, int slot) {
+        this.directory = directory;
+        this.slot = slot;
     }
 
-    public void setMemberName(String memberName) {
-        this.memberName = memberName;
+    //getters
+    public String getMemberId() {
+        //Member IDs have the same 6-digit form as Bill IDs
+        return Bill.formatBillId(directory.getInt(slot, 0));
     }
 
     public String getMemberName() {
-        return memberName;
-    }
-
-    public void setAddress(String address) {
-        this.address = address;
+        return directory.getText(slot, NAME, Charset.defaultCharset());
     }
 
     public String getAddress() {
-        return address;
+        return directory.getText(slot, ADDRESS, Charset.defaultCharset());
     }
 }
@@ -0,0 +1,253 @@
+import java.util.Arrays;
+
+/**
+ * The NumberIndex class is an inverted index of the entries of a LuckyNumbersCompetition. For
+ * each of the 35 numbers it keeps a compressed bitmap of the entries which contain it, so the
+ * entries matching a set of lucky numbers are found with bitmap operations instead of a scan of
+ * every entry.
+ *
+ * The bitmaps are split like Roaring bitmaps: entry IDs are grouped in chunks of 65536 and every
+ * number has one container per chunk.
+ * 1.an array container keeps the sorted positions of up to ARRAY_LIMIT entries (2 bytes each).
+ * 2.a bitmap container keeps one bit per entry of the chunk (8 KB) and is used once a number is
+ *   in more than ARRAY_LIMIT entries of the chunk.
+ * To count matches, the containers of the lucky numbers are added up bit by bit into three
+ * bit-planes (bit-sliced counting), so every 64 entries cost a few word operations per lucky
+ * number and the number of matches of an entry is read from the planes.
+ *
+ * The index is only ever extended: entries must be added in ascending order of entry ID.
+ *
+ * @see LuckyNumbersCompetition
+ */
+public class NumberIndex {
+    /*
+    @param NUMBERS     constant represents how many different numbers there are (1 to 35)
+    @param CHUNK_SHIFT constant represents log2 of the number of entries per chunk
+    @param CHUNK_SIZE  constant represents number of entries per chunk
+    @param WORDS       constant represents number of long words of a bitmap container
+    @param ARRAY_LIMIT constant represents largest array container
+
+    @param containers  containers[number - 1][chunk] holds the entries of one number in one chunk
+    @param size        number of entries in the index (entry IDs 1 to size)
+     */
+    private static final int NUMBERS = 35;
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int WORDS = CHUNK_SIZE >>> 6;
+    private static final int ARRAY_LIMIT = 4096;
+
+    private Container[][] containers = new Container[NUMBERS][0];
+    private int size = 0;
+
+    /**
+     * This interface takes the entries found by forEachMatch.
+     */
+    public interface MatchVisitor {
+        /**
+         * This method is called for every entry with enough matched numbers, by entry ID.
+         *
+         * @param entryId entry ID
+         * @param matches number of lucky numbers in the entry
+         */
+        void visit(int entryId, int matches);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method adds the next entry to the index.
+     *
+     * @param entryId entry ID, which must be size() + 1
+     * @param mask numbers bitmask of the entry
+     */
+    public void add(int entryId, long mask) {
+        if (entryId != size + 1) {
+            throw new IllegalArgumentException("Entries must be added in ascending order.");
+        }
+        int chunk = (entryId - 1) >>> CHUNK_SHIFT;
+        int position = (entryId - 1) & (CHUNK_SIZE - 1);
+        if (chunk == containers[0].length) {
+            for (int n = 0; n < NUMBERS; n++) {
+                containers[n] = Arrays.copyOf(containers[n], chunk + 1);
+                containers[n][chunk] = new Container();
+            }
+        }
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            containers[Long.numberOfTrailingZeros(rest)][chunk].add(position);
+        }
+        size = entryId;
+    }
+
+    /**
+     * This method counts the entries by how many lucky numbers they contain.
+     *
+     * @param luckyMask numbers bitmask of at most 7 lucky numbers
+     * @return counts[k] is the number of entries with exactly k lucky numbers (k from 0 to 7)
+     */
+    public long[] matchHistogram(long luckyMask) {
+        this.checkLucky(luckyMask);
+        long[] counts = new long[8];
+        long[][] planes = new long[3][WORDS];
+        long[] scratch = new long[WORDS];
+        long matched = 0;
+        for (int chunk = 0; chunk < containers[0].length; chunk++) {
+            this.countChunk(luckyMask, chunk, planes, scratch);
+            for (int w = 0; w < WORDS; w++) {
+                long s0 = planes[0][w];
+                long s1 = planes[1][w];
+                long s2 = planes[2][w];
+                for (int k = 1; k < 8; k++) {
+                    long bits = ((k & 1) != 0 ? s0 : ~s0) & ((k & 2) != 0 ? s1 : ~s1)
+                            & ((k & 4) != 0 ? s2 : ~s2);
+                    counts[k] += Long.bitCount(bits);
+                }
+            }
+        }
+        for (int k = 1; k < 8; k++) {
+            matched += counts[k];
+        }
+        counts[0] = size - matched;
+        return counts;
+    }
+
+    /**
+     * This method visits every entry which contains at least minMatches of the lucky numbers,
+     * in ascending order of entry ID.
+     *
+     * @param luckyMask numbers bitmask of at most 7 lucky numbers
+     * @param minMatches smallest number of lucky numbers an entry must contain (at least 1)
+     * @param visitor MatchVisitor which takes the entries
+     */
+    public void forEachMatch(long luckyMask, int minMatches, MatchVisitor visitor) {
+        this.checkLucky(luckyMask);
+        if (minMatches < 1) {
+            throw new IllegalArgumentException("At least one number must match.");
+        }
+        long[][] planes = new long[3][WORDS];
+        long[] scratch = new long[WORDS];
+        for (int chunk = 0; chunk < containers[0].length; chunk++) {
+            this.countChunk(luckyMask, chunk, planes, scratch);
+            int base = (chunk << CHUNK_SHIFT) + 1;
+            for (int w = 0; w < WORDS; w++) {
+                long s0 = planes[0][w];
+                long s1 = planes[1][w];
+                long s2 = planes[2][w];
+                //entries with at least minMatches numbers, as a union of exact counts
+                long bits = 0L;
+                for (int k = minMatches; k < 8; k++) {
+                    bits |= ((k & 1) != 0 ? s0 : ~s0) & ((k & 2) != 0 ? s1 : ~s1)
+                            & ((k & 4) != 0 ? s2 : ~s2);
+                }
+                for (; bits != 0; bits &= bits - 1) {
+                    int bit = Long.numberOfTrailingZeros(bits);
+                    int matches = (int) ((s0 >>> bit) & 1) | (int) (((s1 >>> bit) & 1) << 1)
+                            | (int) (((s2 >>> bit) & 1) << 2);
+                    visitor.visit(base + (w << 6) + bit, matches);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method checks a set of lucky numbers. The bit-planes count up to 7 matches only.
+     *
+     * @param luckyMask numbers bitmask to be checked
+     */
+    private void checkLucky(long luckyMask) {
+        if (Long.bitCount(luckyMask) > 7 || (luckyMask >>> NUMBERS) != 0) {
+            throw new IllegalArgumentException("At most 7 numbers from 1 to 35 are expected.");
+        }
+    }
+
+    /**
+     * This method adds up the containers of the lucky numbers of one chunk into three
+     * bit-planes: bit b of planes[0], planes[1] and planes[2] are the binary digits of the
+     * number of lucky numbers in the entry at position b.
+     *
+     * @param luckyMask numbers bitmask of at most 7 lucky numbers
+     * @param chunk chunk index
+     * @param planes three arrays of WORDS words which are overwritten
+     * @param scratch array of WORDS words used to expand array containers
+     */
+    private void countChunk(long luckyMask, int chunk, long[][] planes, long[] scratch) {
+        long[] s0 = planes[0];
+        long[] s1 = planes[1];
+        long[] s2 = planes[2];
+        Arrays.fill(s0, 0L);
+        Arrays.fill(s1, 0L);
+        Arrays.fill(s2, 0L);
+        for (long rest = luckyMask; rest != 0; rest &= rest - 1) {
+            Container container = containers[Long.numberOfTrailingZeros(rest)][chunk];
+            long[] words = container.words(scratch);
+            for (int w = 0; w < WORDS; w++) {
+                //ripple-carry add of one bit to a 3-bit counter
+                long x = words[w];
+                long carry0 = s0[w] & x;
+                s0[w] ^= x;
+                long carry1 = s1[w] & carry0;
+                s1[w] ^= carry0;
+                s2[w] |= carry1;
+            }
+        }
+    }
+
+    /**
+     * The Container class holds the positions of the entries of one number in one chunk, as a
+     * sorted array while there are few of them and as a bitmap afterwards.
+     */
+    private static class Container {
+        /*
+        @param values      sorted positions while the container is an array container
+        @param cardinality number of positions in values
+        @param bitmap      one bit per position once the container is a bitmap container
+         */
+        private char[] values = new char[4];
+        private int cardinality = 0;
+        private long[] bitmap = null;
+
+        /**
+         * This method adds a position larger than every position added before.
+         *
+         * @param position position of the entry in the chunk
+         */
+        void add(int position) {
+            if (bitmap != null) {
+                bitmap[position >>> 6] |= 1L << position;
+                return;
+            }
+            if (cardinality == ARRAY_LIMIT) {
+                bitmap = new long[WORDS];
+                for (int i = 0; i < cardinality; i++) {
+                    bitmap[values[i] >>> 6] |= 1L << values[i];
+                }
+                bitmap[position >>> 6] |= 1L << position;
+                values = null;
+                return;
+            }
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(cardinality * 2, ARRAY_LIMIT));
+            }
+            values[cardinality] = (char) position;
+            cardinality += 1;
+        }
+
+        /**
+         * This method returns the container as a bitmap.
+         *
+         * @param scratch array of WORDS words to expand an array container into
+         * @return the bitmap of the container, or scratch filled with it
+         */
+        long[] words(long[] scratch) {
+            if (bitmap != null) {
+                return bitmap;
+            }
+            Arrays.fill(scratch, 0L);
+            for (int i = 0; i < cardinality; i++) {
+                scratch[values[i] >>> 6] |= 1L << values[i];
+            }
+            return scratch;
+        }
+    }
+}
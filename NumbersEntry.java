@@ -1,16 +1,69 @@
 /**
  * The NumbersEntry class is the superclass of AutoNumbersEntry.
  * It provides NumbersEntry used in the LuckyNumbersCompetition when generate manual entries.
+ *
+ * The 7 numbers of an entry are all in range of 1 to 35, so they are stored as one long bitmask
+ * where number n is kept in bit (n - 1). Matching two entries is then a single bitCount of the
+ * intersection of their masks. The int[] accessors are still provided for printing, and the
+ * rank of the numbers (CombinationCodec) identifies them as one int.
+ *
+ * @see CombinationCodec
  */
 public class NumbersEntry extends Entry {
-    private int[] numbers; //store numbers generated in  LuckyNumbersCompetition
+    private long numbersMask; //store numbers generated in LuckyNumbersCompetition as a bitmask
 
     //setters and getters
     public void setNumbers(int[] numbers) {
-        this.numbers = numbers;
+        this.numbersMask = toMask(numbers);
     }
 
     public int[] getNumbers() {
+        return toNumbers(numbersMask);
+    }
+
+    public void setNumbersMask(long numbersMask) {
+        this.numbersMask = numbersMask;
+    }
+
+    public long getNumbersMask() {
+        return numbersMask;
+    }
+
+    public void setNumbersRank(int numbersRank) {
+        this.numbersMask = CombinationCodec.toMask(numbersRank);
+    }
+
+    public int getNumbersRank() {
+        return CombinationCodec.rank(numbersMask);
+    }
+
+    /**
+     * This method converts an array of numbers (1 to 35) into a bitmask.
+     *
+     * @param numbers Integer Array to be converted
+     * @return bitmask with bit (n - 1) set for every number n
+     */
+    public static long toMask(int[] numbers) {
+        long mask = 0L;
+        for (int number : numbers) {
+            mask |= 1L << (number - 1);
+        }
+        return mask;
+    }
+
+    /**
+     * This method converts a bitmask back into an ascending array of numbers.
+     *
+     * @param mask bitmask with bit (n - 1) set for every number n
+     * @return sorted Integer Array
+     */
+    public static int[] toNumbers(long mask) {
+        int[] numbers = new int[Long.bitCount(mask)];
+        int i = 0;
+        while (mask != 0) {
+            numbers[i++] = Long.numberOfTrailingZeros(mask) + 1;
+            mask &= mask - 1;
+        }
         return numbers;
     }
 }
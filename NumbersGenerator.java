@@ -0,0 +1,98 @@
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+/**
+ * The NumbersGenerator class draws 7 different numbers in range of 1 to 35 for auto entries and
+ * lucky entries. Every LuckyNumbersCompetition owns one generator, so the random number generator
+ * and the working buffer are reused for all entries instead of being created for each entry.
+ *
+ * In Normal mode the numbers are drawn with a partial Fisher-Yates shuffle over the buffer (only
+ * 7 swaps). In Testing mode the generator repeats the full shuffle which
+ * Collections.shuffle(list, new Random(seed)) performs on the list 1..35, so a seed always gives
+ * exactly the same numbers as before. The random number stream of Normal mode comes from
+ * RandomProvider, unless one is given.
+ *
+ * @see AutoNumbersEntry
+ * @see LuckyNumbersCompetition
+ * @see RandomProvider
+ */
+public class NumbersGenerator {
+    /*
+    @param NUMBER_COUNT constant represents number count
+    @param MAX_NUMBER   constant represents max number
+
+    @param buffer       reused permutation of the numbers 1 to 35
+    @param random       random number generator used in Normal mode
+    @param seeded       random number generator reseeded for every entry in Testing mode
+     */
+    private final int NUMBER_COUNT = 7;
+    private final int MAX_NUMBER = 35;
+
+    private final int[] buffer = new int[MAX_NUMBER];
+    private final RandomGenerator random;
+    private final Random seeded = new Random();
+
+    /**
+     * NumbersGenerator Constructor for Normal mode.
+     */
+    public NumbersGenerator() {
+        this(RandomProvider.get().newStream());
+    }
+
+    /**
+     * Overload Constructor uses the given random number generator in Normal mode.
+     *
+     * @param random random number stream to draw numbers from
+     */
+    public NumbersGenerator(RandomGenerator random) {
+        this.random = random;
+        for (int i = 0; i < MAX_NUMBER; i++) {
+            buffer[i] = i + 1;
+        }
+    }
+
+    /**
+     * This method draws 7 different numbers in Normal mode.
+     *
+     * @return numbers bitmask with bit (n - 1) set for every number n
+     */
+    public long nextMask() {
+        //the buffer is always a permutation of 1..35, so it does not need to be reset
+        long mask = 0L;
+        for (int i = 0; i < NUMBER_COUNT; i++) {
+            int j = i + random.nextInt(MAX_NUMBER - i);
+            int temp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = temp;
+            mask |= 1L << (buffer[i] - 1);
+        }
+        return mask;
+    }
+
+    /**
+     * This method draws 7 different numbers by using seed in Testing mode.
+     *
+     * @param seed seed of the random number generator
+     * @return numbers bitmask with bit (n - 1) set for every number n
+     */
+    public long seededMask(long seed) {
+        for (int i = 0; i < MAX_NUMBER; i++) {
+            buffer[i] = i + 1;
+        }
+
+        //same swaps as Collections.shuffle on a RandomAccess list
+        seeded.setSeed(seed);
+        for (int i = MAX_NUMBER; i > 1; i--) {
+            int j = seeded.nextInt(i);
+            int temp = buffer[i - 1];
+            buffer[i - 1] = buffer[j];
+            buffer[j] = temp;
+        }
+
+        long mask = 0L;
+        for (int i = 0; i < NUMBER_COUNT; i++) {
+            mask |= 1L << (buffer[i] - 1);
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,216 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The OutputSink class collects the text of entry listings, winner lists and reports in one
+ * reused StringBuilder and writes it to its target in large blocks, instead of one printf call
+ * per number. Numbers are appended and padded by hand, so no format string is parsed, and the
+ * text is the same as the printf calls it replaces.
+ * There are three targets:
+ * 1.console: the text is printed to System.out, a block at a time.
+ * 2.file: the text is written to a file in UTF-8.
+ * 3.discard: the text is thrown away (e.g. for large batch runs).
+ * An OutputSink is not thread-safe, every Competition has its own one.
+ *
+ * @see Competition
+ */
+public class OutputSink implements Closeable, Flushable {
+    /*
+    @param BLOCK_SIZE constant represents number of chars collected before they are written
+
+    @param target     Appendable which takes the text (System.out or a Writer)
+    @param owned      whether close() also closes target
+    @param builder    reused StringBuilder which collects the text
+     */
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    private final Appendable target;
+    private final boolean owned;
+    private final StringBuilder builder = new StringBuilder(BLOCK_SIZE + 256);
+
+    /**
+     * OutputSink Constructor.
+     *
+     * @param target Appendable which takes the text
+     * @param owned whether close() also closes target
+     */
+    private OutputSink(Appendable target, boolean owned) {
+        this.target = target;
+        this.owned = owned;
+    }
+
+    /**
+     * This method creates an OutputSink which prints to System.out.
+     *
+     * @return a console OutputSink
+     */
+    public static OutputSink console() {
+        return new OutputSink(System.out, false);
+    }
+
+    /**
+     * This method creates an OutputSink which writes to a file.
+     *
+     * @param fileName path to the file, which is created or truncated
+     * @return a file OutputSink
+     * @exception IOException file cannot be created
+     */
+    public static OutputSink file(String fileName) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(fileName), StandardCharsets.UTF_8), BLOCK_SIZE);
+        return new OutputSink(writer, true);
+    }
+
+    /**
+     * This method creates an OutputSink which throws away all text.
+     *
+     * @return a discarding OutputSink
+     */
+    public static OutputSink discard() {
+        return new OutputSink(Writer.nullWriter(), true);
+    }
+
+    /**
+     * This method appends a String. A String which ends a line (e.g. "\n" of a printf format)
+     * may fill a block, so the text is written to the target when a full block has been
+     * collected.
+     *
+     * @param str String to append
+     * @return this OutputSink
+     */
+    public OutputSink print(String str) {
+        builder.append(str);
+        if (builder.length() >= BLOCK_SIZE) {
+            this.write();
+        }
+        return this;
+    }
+
+    /**
+     * This method appends an integer, like "%d".
+     *
+     * @param value integer to append
+     * @return this OutputSink
+     */
+    public OutputSink print(int value) {
+        builder.append(value);
+        return this;
+    }
+
+    /**
+     * This method appends an integer right-aligned in a field, like "%3d".
+     *
+     * @param value integer to append
+     * @param width width of the field
+     * @return this OutputSink
+     */
+    public OutputSink printRight(int value, int width) {
+        for (int i = this.length(value); i < width; i++) {
+            builder.append(' ');
+        }
+        builder.append(value);
+        return this;
+    }
+
+    /**
+     * This method appends an integer left-aligned in a field, like "%-5d".
+     *
+     * @param value integer to append
+     * @param width width of the field
+     * @return this OutputSink
+     */
+    public OutputSink printLeft(int value, int width) {
+        builder.append(value);
+        for (int i = this.length(value); i < width; i++) {
+            builder.append(' ');
+        }
+        return this;
+    }
+
+    /**
+     * This method ends a line like System.out.println().
+     *
+     * @return this OutputSink
+     */
+    public OutputSink println() {
+        return this.print(System.lineSeparator());
+    }
+
+    /**
+     * This method appends a String and ends the line.
+     *
+     * @param str String to append
+     * @return this OutputSink
+     */
+    public OutputSink println(String str) {
+        builder.append(str);
+        return this.println();
+    }
+
+    /**
+     * This method writes the collected text to the target and flushes the target. It must be
+     * called before anything else is printed to the same target.
+     */
+    @Override
+    public void flush() {
+        this.write();
+        try {
+            if (target instanceof Flushable) {
+                ((Flushable) target).flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * This method flushes the collected text and closes a file target.
+     *
+     * @exception IOException file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        this.flush();
+        if (owned && target instanceof Closeable) {
+            ((Closeable) target).close();
+        }
+    }
+
+    /**
+     * This method writes the collected text to the target and empties the builder.
+     */
+    private void write() {
+        if (builder.length() == 0) {
+            return;
+        }
+        try {
+            target.append(builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        builder.setLength(0);
+    }
+
+    /**
+     * This method counts the chars of an integer in decimal.
+     *
+     * @param value integer to measure
+     * @return number of chars including the minus sign
+     */
+    private int length(int value) {
+        int length = value < 0 ? 2 : 1;
+        long rest = Math.abs((long) value);
+        while (rest >= 10) {
+            rest /= 10;
+            length += 1;
+        }
+        return length;
+    }
+}
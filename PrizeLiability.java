@@ -0,0 +1,170 @@
+/**
+ * The PrizeLiability class tells how much a LuckyNumbersCompetition may pay out before its
+ * winners are drawn.
+ * 1.expected winners and prizes over all C(35,7) possible lucky draws. An entry shares exactly k
+ *   numbers with C(7,k) * C(28,7-k) of the draws whichever numbers it has, so the expected number
+ *   of entries in each prize tier is N * C(7,k) * C(28,7-k) / C(35,7) for N entries; nothing has
+ *   to be matched against the entries.
+ * 2.the numbers picked most often and the exact winners and prizes of a draw of the 7 most picked
+ *   numbers (the hot draw), which shows how far a single draw can be above the expected prizes
+ *   when the entries crowd on some numbers.
+ * The hot draw is not the proven worst case: that would need all 6,724,520 draws to be matched
+ * against the entries. Only entries are counted here; every member keeps its largest prize only
+ * when the winners are drawn, so the real prizes can be lower.
+ *
+ * @see LuckyNumbersCompetition
+ */
+public class PrizeLiability {
+    /*
+    @param NUMBER_COUNT constant represents number count of an entry
+    @param MAX_NUMBER   constant represents max number
+
+    @param entries      number of entries
+    @param prizeTable   prize of an entry by number of matched numbers
+    @param numberCounts numberCounts[n - 1] is the number of entries which contain number n
+    @param hotMask      numbers bitmask of the 7 most picked numbers
+    @param hotWinners   hotWinners[k] is the number of entries with exactly k hot numbers
+     */
+    private static final int NUMBER_COUNT = 7;
+    private static final int MAX_NUMBER = 35;
+
+    private final int entries;
+    private final int[] prizeTable;
+    private final long[] numberCounts;
+    private final long hotMask;
+    private final long[] hotWinners;
+
+    /**
+     * PrizeLiability Constructor.
+     *
+     * @param entries number of entries
+     * @param prizeTable prize of an entry by number of matched numbers (0 to 7)
+     * @param numberCounts numberCounts[n - 1] is the number of entries which contain number n
+     * @param hotMask numbers bitmask of the 7 most picked numbers
+     * @param hotWinners hotWinners[k] is the number of entries with exactly k hot numbers
+     */
+    public PrizeLiability(int entries, int[] prizeTable, long[] numberCounts, long hotMask,
+                          long[] hotWinners) {
+        this.entries = entries;
+        this.prizeTable = prizeTable;
+        this.numberCounts = numberCounts;
+        this.hotMask = hotMask;
+        this.hotWinners = hotWinners;
+    }
+
+    /**
+     * This method picks the 7 numbers which most entries contain, the smaller number first when
+     * two numbers are picked equally often.
+     *
+     * @param numberCounts numberCounts[n - 1] is the number of entries which contain number n
+     * @return numbers bitmask of the 7 most picked numbers
+     */
+    public static long hotMask(long[] numberCounts) {
+        long mask = 0L;
+        for (int i = 0; i < NUMBER_COUNT; i++) {
+            int best = -1;
+            for (int n = 0; n < MAX_NUMBER; n++) {
+                if ((mask & (1L << n)) == 0 && (best < 0 || numberCounts[n] > numberCounts[best])) {
+                    best = n;
+                }
+            }
+            mask |= 1L << best;
+        }
+        return mask;
+    }
+
+    /**
+     * This method returns the chance that an entry shares exactly k numbers with a random draw,
+     * C(7,k) * C(28,7-k) / C(35,7).
+     *
+     * @param k number of matched numbers (0 to 7)
+     * @return probability of k matched numbers
+     */
+    public static double tierProbability(int k) {
+        return (double) PrizeLiability.binomial(NUMBER_COUNT, k) *
+                PrizeLiability.binomial(MAX_NUMBER - NUMBER_COUNT, NUMBER_COUNT - k) /
+                PrizeLiability.binomial(MAX_NUMBER, NUMBER_COUNT);
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    /**
+     * This method returns how many entries contain a number.
+     *
+     * @param number number from 1 to 35
+     * @return number of entries which contain it
+     */
+    public long getNumberCount(int number) {
+        return numberCounts[number - 1];
+    }
+
+    /**
+     * This method returns the expected number of entries with exactly k lucky numbers.
+     *
+     * @param k number of matched numbers (0 to 7)
+     * @return expected number of entries over all draws
+     */
+    public double getExpectedWinners(int k) {
+        return entries * PrizeLiability.tierProbability(k);
+    }
+
+    /**
+     * This method returns the expected total prize of all entries over all draws.
+     *
+     * @return expected total prize
+     */
+    public double getExpectedTotalPrize() {
+        double total = 0;
+        for (int k = 0; k <= NUMBER_COUNT; k++) {
+            total += this.getExpectedWinners(k) * prizeTable[k];
+        }
+        return total;
+    }
+
+    public int[] getHotNumbers() {
+        return NumbersEntry.toNumbers(hotMask);
+    }
+
+    /**
+     * This method returns the number of entries with exactly k numbers of the hot draw.
+     *
+     * @param k number of matched numbers (0 to 7)
+     * @return number of entries
+     */
+    public long getHotWinners(int k) {
+        return hotWinners[k];
+    }
+
+    /**
+     * This method returns the total prize of all entries if the hot numbers are drawn.
+     *
+     * @return total prize of the hot draw
+     */
+    public long getHotTotalPrize() {
+        long total = 0;
+        for (int k = 0; k <= NUMBER_COUNT; k++) {
+            total += hotWinners[k] * prizeTable[k];
+        }
+        return total;
+    }
+
+    /**
+     * This method calculates a binomial coefficient.
+     *
+     * @param n number of elements
+     * @param k number of elements chosen
+     * @return C(n,k)
+     */
+    private static long binomial(int n, int k) {
+        if (k < 0 || k > n) {
+            return 0;
+        }
+        long result = 1;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+}
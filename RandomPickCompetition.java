@@ -1,19 +1,26 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Random;
+import java.util.Arrays;
 import java.util.Scanner;
+import java.util.random.RandomGenerator;
 
 /**
  * The RandomPickCompetition class is the subclass of Competition. It is the class to handle
  * RandomPickCompetition type competitions. In a RandomPickCompetition, the program will use a
  * simple algorithm to generate the entries based on thr total amount of the bill. Specifically, it
- * just generate basic entries (objects of the base Entry class) – no numbers are required.
+ * just generate basic entries – no numbers are required. The entries of a bill are kept as one
+ * run in BillRuns, so a bill takes the same memory however many entries it has.
  *
  * In a RandomPick competition, the system automatically picks 3 winning entries from the entry
  * list of the competition. The prizes for the first, second, and third winning entries are 50000
- * points, 5000 points, and 1000 points, respectively.
+ * points, 5000 points, and 1000 points, respectively. A competition with fewer than 3 entries
+ * picks all of them. A member wins with their first picked entry only; a later pick of the same
+ * member uses up its prize without awarding it. Entry IDs are picked uniformly, so a bill wins
+ * with a chance in proportion to its number of entries.
  *
- * @see Entry
+ * @see BillRuns
+ * @see EntrySampler
  */
 public class RandomPickCompetition extends Competition implements Serializable {
     /*
@@ -21,30 +28,71 @@ public class RandomPickCompetition extends Competition implements Serializable {
     @param SECOND_PRIZE        constant represents second level prize
     @param THIRD_PRIZE         constant represents third level prize
     @param prizes              constant Array store prizes of three winning level
-
     @param MAX_WINNING_ENTRIES constant represents max winning entries
 
-    @param entries             ArrayList stores new generated Entry objects
+    @param billRuns            BillRuns stores the entries of every bill as one run
+     */
+    private static final long serialVersionUID = 7355771219213212638L;
+    private static final int FIRST_PRIZE = 50000;
+    private static final int SECOND_PRIZE = 5000;
+    private static final int THIRD_PRIZE = 1000;
+    private static final int[] prizes = {FIRST_PRIZE, SECOND_PRIZE, THIRD_PRIZE};
+    private static final int MAX_WINNING_ENTRIES = 3;
+
+    private BillRuns billRuns = new BillRuns();
+
+    /**
+     * This method overrides restoreEntry in the parent class Competition to add the entry to
+     * billRuns instead of entryStore.
+     *
+     * @param rank rank of the numbers of the entry (always NO_NUMBERS in RandomPickCompetition)
+     * @param billId numeric Bill ID which the entry belongs to
+     * @param isManual whether the entry is a manual one (always false in RandomPickCompetition)
      */
-    private final int FIRST_PRIZE = 50000;
-    private final int SECOND_PRIZE = 5000;
-    private final int THIRD_PRIZE = 1000;
-    private final int[] prizes = {FIRST_PRIZE, SECOND_PRIZE, THIRD_PRIZE};
-	
-    private final int MAX_WINNING_ENTRIES = 3;
+    @Override
+    protected void restoreEntry(int rank, int billId, boolean isManual) {
+        billRuns.add(billId, 1);
+    }
 
-    ArrayList<Entry> entries = new ArrayList<>();
+    @Override
+    protected int getEntryCount() {
+        return billRuns.size();
+    }
+
+    @Override
+    protected int getEntryBillId(int entryId) {
+        return billRuns.getBillId(entryId);
+    }
+
+    @Override
+    protected int getEntryRank(int entryId) {
+        return CombinationCodec.NO_NUMBERS;
+    }
+
+    @Override
+    protected boolean isManualEntry(int entryId) {
+        return false;
+    }
 
     /**
-     * This method is used to generate new objects of Entry class.
+     * This method reads a competition saved with Java serialization and rebuilds the entries of
+     * competitions saved by older versions, which kept one Entry object (or one entryStore
+     * element) per entry instead of billRuns.
      *
-     * @return an object of Entry class
+     * @param in ObjectInputStream to read from
+     * @exception IOException stream cannot be read
+     * @exception ClassNotFoundException class of a field cannot be found
      */
-    private Entry addNewEntry() {
-        Entry newEntry = new Entry();
-        this.setEntryID(this.getEntryID() + 1);
-        entries.add(newEntry);
-        return newEntry;
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (billRuns == null) {
+            billRuns = new BillRuns();
+        }
+        this.restoreLegacyEntries(null, null);
+        for (int i = 1; i <= entryStore.size(); i++) {
+            billRuns.add(entryStore.getBillId(i), 1);
+        }
+        entryStore = new EntryStore();
     }
 
     /**
@@ -62,21 +110,34 @@ public class RandomPickCompetition extends Competition implements Serializable {
         int entryNum = (int)(totalAmount / 50);
 
         System.out.printf("This bill ($%s) is eligible for %d entries.\n",
-                dataProvider.getBill(billID).getTotalAmount(), entryNum);
+                totalAmount, entryNum);
         System.out.println("The following entries have been automatically generated:");
 
         //loop to print generated entries
-        int loop = 0;
-        while (loop < entryNum) {
-            Entry newEntry = this.addNewEntry();
-            newEntry.setEntryId(this.getEntryID());
-
-            System.out.printf("Entry ID: %-6d\n", this.getEntryID());
-
-            billMap.put(this.getEntryID(), billID);
-            loop += 1;
+        int firstId = this.createEntries(billID, entryNum, new long[0], mode);
+        OutputSink out = this.getOutput();
+        for (int i = firstId; i < firstId + entryNum; i++) {
+            out.print("Entry ID: ").printLeft(i, 6).print("\n");
         }
-        this.addMoreEntries(keyboard, dataProvider, mode);
+        out.flush();
+    }
+
+    /**
+     * This method overrides the abstract methods in the parent class Competition. Entries of a
+     * RandomPickCompetition have no numbers, so manualMasks must be empty.
+     *
+     * @param billID Bill ID which the entries belong to
+     * @param entryNum total number of entries of the bill
+     * @param manualMasks numbers bitmasks of the manual entries (always empty)
+     * @param mode mode of current Competition object
+     * @return entry ID of the first created entry
+     */
+    @Override
+    public synchronized int createEntries(String billID, int entryNum, long[] manualMasks,
+                                          char mode) {
+        int firstId = billRuns.add(Integer.parseInt(billID), entryNum);
+        this.setEntryID(this.getEntryID() + entryNum);
+        return firstId;
     }
 
     /**
@@ -86,64 +147,63 @@ public class RandomPickCompetition extends Competition implements Serializable {
      * @param mode mode of current Competition object
      */
     @Override
-    public void drawWinners(DataProvider dataProvider, char mode) {
-        this.printCompetitionInfo();
-        System.out.println("Winning entries:");
+    public synchronized void drawWinners(DataProvider dataProvider, char mode) {
+        OutputSink out = this.getOutput();
+        this.printCompetitionInfo(out);
+        out.println("Winning entries:");
 
         //randomly pick three winning entries from the entry list.
-        Random randomGenerator;
-        if (mode == 'T') {
-            randomGenerator = new Random(this.getId());
+        RandomProvider provider = RandomProvider.get();
+        RandomGenerator randomGenerator = mode == 'T' ?
+                provider.seeded(this.getId(), RandomProvider.DRAW_KEY) : provider.newStream();
+
+        //pick at most three different entries, fewer if there are not enough entries
+        int entryCount = billRuns.size();
+        int pickCount = Math.min(MAX_WINNING_ENTRIES, entryCount);
+        int[] picks;
+        if (mode == 'T' && provider.isLegacy()) {
+            picks = EntrySampler.pickLegacy(randomGenerator, entryCount, pickCount);
         } else {
-            randomGenerator = new Random();
+            picks = EntrySampler.pick(randomGenerator, entryCount, pickCount);
         }
-		
+
+        //every member keeps its first pick only, which has the largest prize
+        //a later pick of the same member still uses up its prize
+        String[] winningMembers = new String[pickCount];
+        int[] pickedIds = new int[pickCount];
+        int[] pickedPrizes = new int[pickCount];
         int winningEntryCount = 0;
-        while (winningEntryCount < MAX_WINNING_ENTRIES) {
-            int winningEntryIndex = randomGenerator.nextInt(entries.size());
-
-            Entry winningEntry = entries.get(winningEntryIndex);
-            if (winningEntry.getPrize() == 0) {
-                int currentPrize = prizes[winningEntryCount];
-                winningEntry.setPrize(currentPrize);
-                winnerMap.put(winningEntry.getEntryId(), winningEntry.getPrize());
+        for (int w = 0; w < pickCount; w++) {
+            int entryId = picks[w] + 1; //entry IDs start at 1
+            String memberId = dataProvider.getBill(this.getEntryBillId(entryId)).getMemberId();
+            if (!Arrays.asList(winningMembers).contains(memberId)) {
+                winningMembers[winningEntryCount] = memberId;
+                pickedIds[winningEntryCount] = entryId;
+                pickedPrizes[winningEntryCount] = prizes[w];
                 winningEntryCount++;
             }
         }
-
-        //update winnerMap
-        //every entry keeps the largest prize only
-        for (int i = 1; i <= entries.size(); i++) {
-            if (winnerMap.get(i) != null) {
-                int temPrize = winnerMap.get(i);
-                for (int j = i + 1; j <= entries.size(); j++) {
-                    if (winnerMap.get(j) != null) {
-                        if (dataProvider.getBill(billMap.get(j)).getMemberId().equals(
-                                dataProvider.getBill(billMap.get(i)).getMemberId())) {
-                            if (temPrize >= winnerMap.get(j)) {
-                                winnerMap.remove(j);
-                            } else {
-                                winnerMap.remove(i);
-                            }
-                        }
-                    }
-                }
-            }
-        }
+        drawResult = DrawResult.of(pickedIds, pickedPrizes, winningEntryCount);
 
         //print winner entries
-        for (int i = 1; i <= entries.size(); i++) {
-            if (winnerMap.get(i) != null) {
-                this.setWinnerNum(this.getWinnerNum() + 1);
-                this.setTotalPrizes(this.getTotalPrizes() + winnerMap.get(i));
-                this.setWinnerEntry(new int[i]);
-
-                String memberId = memberMap.get(billMap.get(i));
-                String memberName = dataProvider.getMember(memberId).getMemberName();
-
-                System.out.printf("Member ID: %s, Member Name: %s, Entry ID: %d, Prize: %-5d\n",
-                        memberId, memberName, i, winnerMap.get(i));
-            }
+        for (int w = 0; w < drawResult.size(); w++) {
+            int i = drawResult.getEntryId(w);
+            this.setWinnerNum(this.getWinnerNum() + 1);
+            this.setTotalPrizes(this.getTotalPrizes() + drawResult.getPrize(w));
+            this.setWinnerEntry(new int[i]);
+
+            Bill bill = dataProvider.getBill(this.getEntryBillId(i));
+            String memberId = bill.getMemberId();
+            String memberName = dataProvider.getMember(bill.getNumericMemberId()).getMemberName();
+
+            out.print("Member ID: ").print(memberId)
+                    .print(", Member Name: ").print(memberName)
+                    .print(", Entry ID: ").print(i)
+                    .print(", Prize: ").printLeft(drawResult.getPrize(w), 5).print("\n");
+        }
+        if (this.getWinnerEntry() == null) {
+            this.setWinnerEntry(new int[0]); //no entries, but the competition is completed
         }
+        out.flush();
     }
 }
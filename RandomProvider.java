@@ -0,0 +1,186 @@
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * The RandomProvider class hands out every random number stream used by the competitions, so the
+ * algorithm behind them can be switched in one place. The algorithm is chosen with the system
+ * property "simplecompetitions.random":
+ * 1.legacy (default): java.util.Random, which gives exactly the same entries and winners in
+ *   Testing mode as older versions.
+ * 2.splittable: java.util.SplittableRandom.
+ * 3.l64x128: L64X128MixRandom of the java.util.random LXM family.
+ *
+ * There are three kinds of streams:
+ * 1.newStream() is an independent stream for one competition in Normal mode.
+ * 2.current() is the stream of the calling thread in Normal mode, so parallel tasks never share
+ *   (and contend on) one generator.
+ * 3.seeded(competitionId, key) is a stream in Testing mode which only depends on the competition
+ *   and a key (e.g. the first entry ID of a batch). Streams of different keys are independent, so
+ *   parallel work replays the same way however it is scheduled.
+ * The splittable algorithms split newStream() and current() from one root generator; the legacy
+ * algorithm keeps using new Random() and ThreadLocalRandom like older versions.
+ *
+ * @see NumbersGenerator
+ * @see EntrySampler
+ */
+public class RandomProvider {
+    /*
+    @param PROPERTY        constant represents system property which chooses the algorithm
+    @param DRAW_KEY        constant represents key of the Testing mode stream of a draw
+    @param GOLDEN_GAMMA    constant represents odd constant which spreads competition IDs apart
+
+    @param defaultProvider RandomProvider chosen by the system property, created when first used
+
+    @param algorithm       algorithm of every stream
+    @param factory         RandomGeneratorFactory of a splittable algorithm, null for legacy
+    @param root            generator which newStream() and current() are split from
+    @param threadStreams   stream of every thread in Normal mode
+     */
+    public static final String PROPERTY = "simplecompetitions.random";
+    public static final long DRAW_KEY = -1L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static volatile RandomProvider defaultProvider;
+
+    private final Algorithm algorithm;
+    private final RandomGeneratorFactory<SplittableGenerator> factory;
+    private final SplittableGenerator root;
+    private final ThreadLocal<RandomGenerator> threadStreams;
+
+    /**
+     * The Algorithm enum lists the random number generators a RandomProvider can use.
+     */
+    public enum Algorithm {
+        LEGACY(null), SPLITTABLE("SplittableRandom"), L64X128("L64X128MixRandom");
+
+        private final String generatorName;
+
+        Algorithm(String generatorName) {
+            this.generatorName = generatorName;
+        }
+    }
+
+    /**
+     * RandomProvider Constructor.
+     *
+     * @param algorithm algorithm of every stream
+     */
+    public RandomProvider(Algorithm algorithm) {
+        this.algorithm = algorithm;
+        if (algorithm == Algorithm.LEGACY) {
+            this.factory = null;
+            this.root = null;
+            this.threadStreams = null;
+        } else {
+            this.factory = RandomGeneratorFactory.of(algorithm.generatorName);
+            this.root = factory.create();
+            this.threadStreams = ThreadLocal.withInitial(this::split);
+        }
+    }
+
+    /**
+     * This method returns the RandomProvider chosen by the system property
+     * "simplecompetitions.random" (legacy, splittable or l64x128).
+     *
+     * @return the RandomProvider used by the competitions
+     */
+    public static RandomProvider get() {
+        RandomProvider provider = defaultProvider;
+        if (provider == null) {
+            synchronized (RandomProvider.class) {
+                provider = defaultProvider;
+                if (provider == null) {
+                    String name = System.getProperty(PROPERTY, "legacy");
+                    Algorithm algorithm;
+                    try {
+                        algorithm = Algorithm.valueOf(name.trim().toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Unknown random number generator " + name +
+                                ", legacy is used.");
+                        algorithm = Algorithm.LEGACY;
+                    }
+                    provider = new RandomProvider(algorithm);
+                    defaultProvider = provider;
+                }
+            }
+        }
+        return provider;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * This method checks whether the streams are java.util.Random, which older versions used.
+     *
+     * @return whether the algorithm is LEGACY
+     */
+    public boolean isLegacy() {
+        return algorithm == Algorithm.LEGACY;
+    }
+
+    /**
+     * This method creates an independent stream for one competition in Normal mode.
+     *
+     * @return a new random number stream
+     */
+    public RandomGenerator newStream() {
+        return this.isLegacy() ? new Random() : this.split();
+    }
+
+    /**
+     * This method returns the stream of the calling thread in Normal mode. It must not be handed
+     * to another thread.
+     *
+     * @return random number stream of the calling thread
+     */
+    public RandomGenerator current() {
+        return this.isLegacy() ? ThreadLocalRandom.current() : threadStreams.get();
+    }
+
+    /**
+     * This method creates a stream in Testing mode. The same competition ID and key always give
+     * the same numbers, and different keys give independent streams. The legacy algorithm seeds
+     * java.util.Random with the competition ID and ignores the key, like older versions did.
+     *
+     * @param competitionId identifier of the competition
+     * @param key what the stream is used for, e.g. DRAW_KEY or the first entry ID of a batch
+     * @return a new random number stream
+     */
+    public RandomGenerator seeded(int competitionId, long key) {
+        if (this.isLegacy()) {
+            return new Random(competitionId);
+        }
+        return factory.create(RandomProvider.mix(RandomProvider.mix(competitionId * GOLDEN_GAMMA)
+                + key));
+    }
+
+    /**
+     * This method splits a new stream from the root generator.
+     *
+     * @return a new random number stream
+     */
+    private RandomGenerator split() {
+        //the root generator is shared, so splitting it is serialized
+        synchronized (root) {
+            return root.split();
+        }
+    }
+
+    /**
+     * This method scrambles the bits of a seed (the finalizer of SplitMix64), so seeds which
+     * differ in a few bits give unrelated streams.
+     *
+     * @param z value to scramble
+     * @return scrambled value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,190 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * The RecordDirectory class keeps the members or the bills of DataProvider outside the Java heap.
+ * Every record has the same width and starts with its numeric 6-digit ID, and all records are
+ * kept one after another in a direct ByteBuffer, so a directory of millions of records costs the
+ * garbage collector a few objects only.
+ * 1.IDs are 6-digit numbers (000000 to 999999), so records are found through a table with one
+ *   int for every possible ID, which holds the slot of its record. The table is a direct
+ *   IntBuffer of 4 MB and a lookup is a single index into it, with no hashing.
+ * 2.texts of variable length (names and addresses) are appended to a direct text area and the
+ *   records keep their position and length.
+ * Adding a record with an ID which is already in the directory replaces the old record in its
+ * slot, like HashMap.put. Records are added while the files are loaded and only read afterwards,
+ * so reading takes no lock. All buffers use the native byte order, so reading a field is a plain
+ * load without byte swapping.
+ *
+ * @see Bill
+ * @see Member
+ */
+public class RecordDirectory {
+    /*
+    @param ID_COUNT      constant represents number of possible IDs (000000 to 999999)
+    @param INITIAL_SLOTS constant represents number of records the directory is created for
+    @param INITIAL_TEXT  constant represents number of text bytes the directory is created for
+
+    @param recordBytes   width of one record in bytes, starting with the int ID
+    @param records       direct ByteBuffer stores the records by slot
+    @param slots         direct IntBuffer stores slot + 1 of the record of every ID, 0 if none
+    @param text          direct ByteBuffer stores the texts of the records
+    @param size          number of records (slots 0 to size - 1)
+    @param textSize      number of text bytes used
+     */
+    public static final int ID_COUNT = 1000000;
+    private static final int INITIAL_SLOTS = 1 << 10;
+    private static final int INITIAL_TEXT = 1 << 14;
+
+    private final int recordBytes;
+    private ByteBuffer records;
+    private final IntBuffer slots;
+    private ByteBuffer text;
+    private int size = 0;
+    private int textSize = 0;
+
+    /**
+     * RecordDirectory Constructor.
+     *
+     * @param recordBytes width of one record in bytes, at least 4 for the ID
+     */
+    public RecordDirectory(int recordBytes) {
+        this.recordBytes = recordBytes;
+        this.records = ByteBuffer.allocateDirect(INITIAL_SLOTS * recordBytes)
+                .order(ByteOrder.nativeOrder());
+        this.slots = ByteBuffer.allocateDirect(ID_COUNT * Integer.BYTES)
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+        this.text = ByteBuffer.allocateDirect(INITIAL_TEXT).order(ByteOrder.nativeOrder());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method finds the record of an ID.
+     *
+     * @param id numeric ID, any int
+     * @return slot of the record, or -1 if there is none
+     */
+    public int find(int id) {
+        if (id < 0 || id >= ID_COUNT) {
+            return -1;
+        }
+        return slots.get(id) - 1;
+    }
+
+    /**
+     * This method adds the record of an ID, or clears the record of the ID if there is one
+     * already. The fields of the record are written by the caller.
+     *
+     * @param id numeric 6-digit ID
+     * @return slot of the record
+     */
+    public int put(int id) {
+        int slot = slots.get(id) - 1;
+        if (slot < 0) {
+            if ((size + 1) * recordBytes > records.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocateDirect(records.capacity() * 2)
+                        .order(ByteOrder.nativeOrder());
+                larger.put(0, records, 0, size * recordBytes);
+                records = larger;
+            }
+            slot = size;
+            size += 1;
+            slots.put(id, slot + 1);
+        }
+        int base = slot * recordBytes;
+        for (int i = 0; i < recordBytes; i++) {
+            records.put(base + i, (byte) 0);
+        }
+        records.putInt(base, id);
+        return slot;
+    }
+
+    /**
+     * This method copies the fields of a record (everything after the ID) from a buffer with
+     * records of the same width, written in the native byte order.
+     *
+     * @param slot slot of the record to write
+     * @param source buffer to copy from
+     * @param sourceBase position of the record in the buffer
+     */
+    public void copyFields(int slot, ByteBuffer source, int sourceBase) {
+        records.put(slot * recordBytes + Integer.BYTES, source, sourceBase + Integer.BYTES,
+                recordBytes - Integer.BYTES);
+    }
+
+    //field accessors, offset is the position of the field inside the record
+    public int getInt(int slot, int offset) {
+        return records.getInt(slot * recordBytes + offset);
+    }
+
+    public void putInt(int slot, int offset, int value) {
+        records.putInt(slot * recordBytes + offset, value);
+    }
+
+    public long getLong(int slot, int offset) {
+        return records.getLong(slot * recordBytes + offset);
+    }
+
+    public void putLong(int slot, int offset, long value) {
+        records.putLong(slot * recordBytes + offset, value);
+    }
+
+    public double getDouble(int slot, int offset) {
+        return records.getDouble(slot * recordBytes + offset);
+    }
+
+    public void putDouble(int slot, int offset, double value) {
+        records.putDouble(slot * recordBytes + offset, value);
+    }
+
+    public byte getByte(int slot, int offset) {
+        return records.get(slot * recordBytes + offset);
+    }
+
+    public void putByte(int slot, int offset, byte value) {
+        records.put(slot * recordBytes + offset, value);
+    }
+
+    /**
+     * This method appends a text to the text area and stores its position and length in two
+     * int fields of a record. The text of a replaced record stays in the text area unused.
+     *
+     * @param slot slot of the record
+     * @param offset position of the two int fields inside the record
+     * @param source buffer with the bytes of the text
+     * @param start position of the first byte in the buffer
+     * @param end position after the last byte in the buffer
+     */
+    public void putText(int slot, int offset, ByteBuffer source, int start, int end) {
+        int length = end - start;
+        if (textSize + length > text.capacity()) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(text.capacity() * 2,
+                    textSize + length)).order(ByteOrder.nativeOrder());
+            larger.put(0, text, 0, textSize);
+            text = larger;
+        }
+        text.put(textSize, source, start, length);
+        this.putInt(slot, offset, textSize);
+        this.putInt(slot, offset + Integer.BYTES, length);
+        textSize += length;
+    }
+
+    /**
+     * This method reads a text stored with putText.
+     *
+     * @param slot slot of the record
+     * @param offset position of the two int fields inside the record
+     * @param charset charset of the text
+     * @return the text as a String
+     */
+    public String getText(int slot, int offset, Charset charset) {
+        byte[] bytes = new byte[this.getInt(slot, offset + Integer.BYTES)];
+        text.get(this.getInt(slot, offset), bytes);
+        return new String(bytes, charset);
+    }
+}
@@ -16,15 +16,16 @@ import java.util.Scanner;
  * load data from the files automatically.
  * If everything works, the program will display the main menu. User is able to create a
  * competition ('L' for LuckyNumbersCompetition and 'R' for RandomPickCompetition). After
- * creating a competition, user is supposed to add new entries for the current active competition
- * based on competition type. Then user could draw winners of current competition and view a
- * summary report of all competitions.
+ * creating a competition, user is supposed to add new entries for an active competition
+ * based on competition type. Several competitions can be active at the same time; they are held
+ * by a CompetitionEngine, and when more than one is active the user chooses one by its ID. Then
+ * user could draw winners of current competition and view a summary report of all competitions.
  * Every time user wants to exit, the program will ask whether he or she wants to save current
- * SimpleCompetitions into a binary file or not.
+ * SimpleCompetitions into a binary snapshot file or not.
  *
  * Here are some constrains in this SimpleCompetitions program.
  * 1.Only customers who have valid membership accounts can enter a competition.
- * 2.The system does not support concurrent competitions.
+ * 2.Several competitions can be active at the same time, but one bill can only be used once.
  * 3.In a competition, one customer can have unlimited numbers of entries based on their paid bills.
  * 4.Customers get one entry for each $50 in a single bill.
  * 5.For one customer, only the first one entry with the highest prize will be awarded.
@@ -33,22 +34,41 @@ import java.util.Scanner;
  * @see Competition
  * @see LuckyNumbersCompetition
  * @see RandomPickCompetition
- * @see java.io.Serializable
+ * @see CompetitionEngine
+ * @see SnapshotWriter
+ * @see SnapshotReader
  */
 public class SimpleCompetitions implements Serializable {
     /*
     @param mode           mode of current SimpleCompetition
     @param competitionNum number of competitions created
-    @param activeCpt      number of current active competitions (two values only)
+    @param activeCpt      number of current active competitions
     @param completedCpt   number of completed competitions
     @param competitions   ArrayList to store objects of competition class
+    @param archive        CompetitionArchive stores completed competitions outside the heap
      */
     private char mode;
     private int competitionNum = 0;
     private int activeCpt = 0;
     private int completedCpt = 0;
 
+    private static final long serialVersionUID = 3690340564765655986L;
+
     ArrayList<Competition> competitions = new ArrayList<>();
+    private transient CompetitionArchive archive;
+
+    //setters and getters
+    public void setMode(char mode) {
+        this.mode = mode;
+    }
+
+    public char getMode() {
+        return mode;
+    }
+
+    public int getCompetitionNum() {
+        return competitionNum;
+    }
 
     /**
      * This method is designed to generating new object of Competition class. Then creat
@@ -72,6 +92,82 @@ public class SimpleCompetitions implements Serializable {
         return newCompetition;
     }
 
+    /**
+     * This method moves a completed competition into the archive and replaces it in ArrayList
+     * competitions by its ArchivedCompetition summary. If the archive cannot be written the
+     * competition simply stays in memory.
+     *
+     * @param competition Competition object which has drawn its winners
+     * @return the summary which replaces the competition, or the competition itself
+     */
+    private Competition archiveCompetition(Competition competition) {
+        if (competition instanceof ArchivedCompetition) {
+            return competition;
+        }
+        try {
+            if (this.archive == null) {
+                this.archive = new CompetitionArchive();
+            }
+            Competition archived = this.archive.archive(competition);
+            int index = this.competitions.indexOf(competition);
+            if (index >= 0) {
+                this.competitions.set(index, archived);
+            }
+            return archived;
+        } catch (IOException e) {
+            return competition;
+        }
+    }
+
+    /**
+     * This method adds a competition which has been created and drawn outside the menu (e.g. by
+     * BatchIngestor). The competition must have the next Competition ID, getCompetitionNum() + 1,
+     * and goes into the archive like a competition drawn with option 3.
+     *
+     * @param competition Competition object which has drawn its winners
+     */
+    void addCompletedCompetition(Competition competition) {
+        this.competitions.add(competition);
+        this.competitionNum += 1;
+        this.completedCpt += 1;
+        this.archiveCompetition(competition);
+    }
+
+    /**
+     * This method is designed to choose the active competition to work with. If there is only one
+     * active competition it is used straight away, otherwise user should input its ID.
+     *
+     * @param keyboard Scanner object to work with system input stream
+     * @param engine CompetitionEngine holds the active competitions
+     * @return the chosen competition, or null if there is no active competition
+     */
+    private Competition selectCompetition(Scanner keyboard, CompetitionEngine engine) {
+        if (engine.activeCount() == 0) {
+            System.out.println("There is no active competition. Please create one!");
+            return null;
+        } else if (engine.activeCount() == 1) {
+            return engine.getActive().get(0);
+        }
+
+        //loop to take and check Competition ID
+        while (true) {
+            System.out.println("Competition ID: ");
+            String competitionID = keyboard.next();
+            keyboard.nextLine();
+
+            Competition competition = null;
+            try {
+                competition = engine.get(Integer.parseInt(competitionID));
+            } catch (NumberFormatException e) {
+                //handled below as an unknown competition
+            }
+            if (competition != null) {
+                return competition;
+            }
+            System.out.println("There is no active competition with this id. Please try again.");
+        }
+    }
+
     /**
      * This report method is designed to print the information of each competition generated by
      * current SimpleCompetitions instance and the statistics of the current SimpleCompetitions.
@@ -80,24 +176,79 @@ public class SimpleCompetitions implements Serializable {
      * @param sc current instance of SimpleCompetitions class
      */
     private void report(SimpleCompetitions sc) {
-        System.out.println("----SUMMARY REPORT----");
-        System.out.printf("+Number of completed competitions: %d\n", sc.completedCpt);
-        System.out.printf("+Number of active competitions: %d\n", sc.activeCpt);
+        OutputSink out = OutputSink.console();
+        out.println("----SUMMARY REPORT----");
+        out.print("+Number of completed competitions: ").print(sc.completedCpt).print("\n");
+        out.print("+Number of active competitions: ").print(sc.activeCpt).print("\n");
 
         for (Competition competition : sc.competitions) {
-            System.out.println();
-            System.out.printf("Competition ID: %d, name: %s,",
-                    competition.getId(), competition.getName());
+            out.println();
+            out.print("Competition ID: ").print(competition.getId())
+                    .print(", name: ").print(competition.getName()).print(",");
             if (competition.getWinnerEntry() == null) {
-                System.out.println(" active: yes");
-                System.out.printf("Number of entries: %d\n", competition.getEntryID());
+                out.println(" active: yes");
+                out.print("Number of entries: ").print(competition.getEntryID()).print("\n");
             } else {
-                System.out.println(" active: no");
-                System.out.printf("Number of entries: %d\n", competition.getEntryID());
-                System.out.printf("Number of winning entries: %d\n", competition.getWinnerNum());
-                System.out.printf("Total awarded prizes: %d\n", competition.getTotalPrizes());
+                out.println(" active: no");
+                out.print("Number of entries: ").print(competition.getEntryID()).print("\n");
+                out.print("Number of winning entries: ").print(competition.getWinnerNum())
+                        .print("\n");
+                out.print("Total awarded prizes: ").print(competition.getTotalPrizes())
+                        .print("\n");
             }
         }
+        out.flush();
+    }
+
+    /**
+     * This method saves current SimpleCompetitions into a binary snapshot file.
+     *
+     * @param fileName path to the snapshot file
+     * @exception IOException file cannot be written
+     */
+    public void saveFile(String fileName) throws IOException {
+        try (SnapshotWriter writer = new SnapshotWriter(fileName)) {
+            writer.writeHeader(mode, competitionNum, activeCpt, completedCpt, competitions.size());
+            for (Competition competition : competitions) {
+                writer.writeCompetition(competition);
+            }
+        }
+    }
+
+    /**
+     * This method reads SimpleCompetitions from a binary snapshot file. Files saved with Java
+     * serialization by older versions are still accepted and read through SnapshotConverter.
+     *
+     * @param fileName path to the snapshot file
+     * @return SimpleCompetitions object from the file
+     * @exception Exception something goes wrong while reading the file
+     */
+    public static SimpleCompetitions readFile(String fileName) throws Exception {
+        if (SnapshotConverter.isLegacyFile(fileName)) {
+            SimpleCompetitions sc = SnapshotConverter.readLegacy(fileName);
+            for (Competition competition : new ArrayList<>(sc.competitions)) {
+                if (competition.getWinnerEntry() != null) {
+                    sc.archiveCompetition(competition);
+                }
+            }
+            return sc;
+        }
+        SimpleCompetitions sc = new SimpleCompetitions();
+        try (SnapshotReader reader = new SnapshotReader(fileName)) {
+            sc.mode = reader.getMode();
+            sc.competitionNum = reader.getCompetitionNum();
+            sc.activeCpt = reader.getActiveCpt();
+            sc.completedCpt = reader.getCompletedCpt();
+            //completed competitions go straight into the archive, one at a time
+            while (reader.hasNext()) {
+                Competition competition = reader.next();
+                sc.competitions.add(competition);
+                if (competition.getWinnerEntry() != null) {
+                    sc.archiveCompetition(competition);
+                }
+            }
+        }
+        return sc;
     }
 
     /**
@@ -124,8 +275,7 @@ public class SimpleCompetitions implements Serializable {
                 try {
                     File file = new File(fileName);
                     if (file.exists()) {
-                        ObjectInputStream in = new ObjectInputStream(new FileInputStream(fileName));
-                        oldCompetition = (SimpleCompetitions) in.readObject();
+                        oldCompetition = SimpleCompetitions.readFile(fileName);
                         break;
                     } else {
                         System.out.println("File not found! Please try again.");
@@ -171,15 +321,6 @@ public class SimpleCompetitions implements Serializable {
         //create an object of the SimpleCompetitions class
         SimpleCompetitions sc = SimpleCompetitions.loadFile(keyboard);
 
-        Competition newCompetition;
-
-        //check SimpleCompetitions object sc already has competition objects or not
-        if (sc.competitionNum != 0) {
-            newCompetition = sc.competitions.get(sc.competitionNum - 1);
-        } else {
-            newCompetition = null;
-        }
-
         //work with Member file and Bill file which user input
         System.out.println("Member file: ");
         String memberFile = keyboard.next();
@@ -192,6 +333,15 @@ public class SimpleCompetitions implements Serializable {
         //invoke a DataProvider object to work with Member file and Bill file
         DataProvider dataProvider = new DataProvider(memberFile, billFile);
 
+        //hand every active competition over to the engine
+        CompetitionEngine engine = new CompetitionEngine(dataProvider, sc.mode);
+        for (Competition competition : sc.competitions) {
+            if (competition.getWinnerEntry() == null) {
+                engine.register(competition);
+            }
+        }
+        sc.activeCpt = engine.activeCount();
+
         //loop of main function menu
         mainLoop:
         while (true) {
@@ -207,57 +357,51 @@ public class SimpleCompetitions implements Serializable {
 
             switch (option) {
                 case "1":
-                    if (sc.activeCpt == 1) {
-                        System.out.println("There is an active competition. "
-                                + "SimpleCompetitions does not support concurrent competitions!");
-                    } else {
-                        //loop to creat different Competition type based on user input
-                        while (true) {
-                            System.out.println("Type of competition " +
-                                    "(L: LuckyNumbers, R: RandomPick)?:");
-                            char type = keyboard.next().toUpperCase().charAt(0);
-                            keyboard.nextLine();
-                            if (type != 'L' && type != 'R') {
-                                System.out.println("Invalid competition type! " +
-                                        "Please choose again.");
-                            } else {
-                                newCompetition = sc.addNewCompetition(type);
-                                break;
-                            }
+                    //loop to creat different Competition type based on user input
+                    Competition newCompetition;
+                    while (true) {
+                        System.out.println("Type of competition " +
+                                "(L: LuckyNumbers, R: RandomPick)?:");
+                        char type = keyboard.next().toUpperCase().charAt(0);
+                        keyboard.nextLine();
+                        if (type != 'L' && type != 'R') {
+                            System.out.println("Invalid competition type! " +
+                                    "Please choose again.");
+                        } else {
+                            newCompetition = sc.addNewCompetition(type);
+                            break;
                         }
-                        newCompetition.handleCompetition(keyboard);
-                        newCompetition.setId(sc.competitionNum);
-                        newCompetition.printCompetitionInfo();
-                        sc.activeCpt = 1; //now have an active competition
                     }
+                    newCompetition.handleCompetition(keyboard);
+                    newCompetition.setId(sc.competitionNum);
+                    newCompetition.printCompetitionInfo();
+                    engine.register(newCompetition);
+                    sc.activeCpt = engine.activeCount(); //one more active competition
                     break;
                 case "2":
-                    //check whether sc already has an active competition or not
-                    if (sc.activeCpt == 0) {
-                        System.out.println("There is no active competition. Please create one!");
-                    } else {
-                        assert newCompetition != null;
-                        newCompetition.handleEntry(keyboard, dataProvider, sc.mode);
+                    //choose an active competition if sc has one
+                    Competition entryCompetition = sc.selectCompetition(keyboard, engine);
+                    if (entryCompetition != null) {
+                        entryCompetition.handleEntry(keyboard, dataProvider, sc.mode);
                     }
                     break;
                 case "3":
-                    //check whether sc already has an active competition or not
-                    if (sc.activeCpt == 0) {
-                        System.out.println("There is no active competition. Please create one!");
-                    } else {
-                        assert newCompetition != null;
-                        if (newCompetition.getEntryID() == 0) {
+                    //choose an active competition if sc has one
+                    Competition drawCompetition = sc.selectCompetition(keyboard, engine);
+                    if (drawCompetition != null) {
+                        if (drawCompetition.getEntryID() == 0) {
                             System.out.println("The current competition has no entries yet!");
                         } else {
-                            newCompetition.drawWinners(dataProvider, sc.mode);
-                            sc.activeCpt = 0; //current competition finished
+                            engine.drawWinners(drawCompetition.getId());
+                            sc.archiveCompetition(drawCompetition);
+                            sc.activeCpt = engine.activeCount(); //competition finished
                             sc.completedCpt += 1; //number of completed competition plus 1
                         }
                     }
                     break;
                 case "4":
                     //check whether sc already has an competition or not
-                    if (newCompetition == null) {
+                    if (sc.competitions.isEmpty()) {
                         System.out.println("No competition has been created yet!");
                     } else {
                         sc.report(sc);
@@ -276,12 +420,8 @@ public class SimpleCompetitions implements Serializable {
                                 System.out.println("File name:");
                                 String fileName = keyboard.nextLine();
                                 try {
-                                    //save SimpleCompetitions object to a file
-                                    FileOutputStream fileOut = new FileOutputStream(fileName);
-                                    ObjectOutputStream out = new ObjectOutputStream(fileOut);
-                                    out.writeObject(sc);
-                                    out.close();
-                                    fileOut.close();
+                                    //save SimpleCompetitions object to a snapshot file
+                                    sc.saveFile(fileName);
                                     System.out.println("Competitions have been saved to file.");
 
                                     //update bill file
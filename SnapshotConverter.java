@@ -0,0 +1,76 @@
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamConstants;
+
+/**
+ * The SnapshotConverter class converts competitions saved with Java serialization (.ser files of
+ * older versions) into the binary snapshot format. The old file is read through an
+ * ObjectInputFilter which only accepts the classes of SimpleCompetitions and the JDK classes they
+ * use, so a crafted file cannot make the program create any other object.
+ *
+ * Usage: java SnapshotConverter old.ser new.snapshot
+ *
+ * @see SnapshotWriter
+ * @see SimpleCompetitions
+ */
+public class SnapshotConverter {
+    /*
+    @param LEGACY_FILTER constant filter of the classes allowed in an old file
+     */
+    private static final ObjectInputFilter LEGACY_FILTER = ObjectInputFilter.Config.createFilter(
+            "SimpleCompetitions;Competition;LuckyNumbersCompetition;RandomPickCompetition;" +
+            "Entry;EntryStore;java.util.ArrayList;java.util.HashMap;java.lang.Integer;" +
+            "java.util.Map$Entry;java.lang.Object;java.lang.Number;java.lang.String;" +
+            "maxdepth=16;maxrefs=100000000;!*");
+
+    /**
+     * This method checks whether a file was saved with Java serialization.
+     *
+     * @param fileName path to the file
+     * @return whether the file starts with the Java serialization magic number
+     * @exception IOException file cannot be opened or read
+     */
+    public static boolean isLegacyFile(String fileName) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(fileName))) {
+            return in.available() >= 2 && in.readShort() == ObjectStreamConstants.STREAM_MAGIC;
+        }
+    }
+
+    /**
+     * This method reads SimpleCompetitions saved with Java serialization.
+     *
+     * @param fileName path to the old file
+     * @return SimpleCompetitions object from the file
+     * @exception IOException file cannot be opened or read
+     * @exception ClassNotFoundException the file contains a class which is not allowed
+     */
+    public static SimpleCompetitions readLegacy(String fileName)
+            throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(fileName))) {
+            in.setObjectInputFilter(LEGACY_FILTER);
+            return (SimpleCompetitions) in.readObject();
+        }
+    }
+
+    /**
+     * Main program to convert an old file into a snapshot file once.
+     *
+     * @param args path to the old file and path to the new snapshot file
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage: java SnapshotConverter <old file> <snapshot file>");
+            return;
+        }
+        try {
+            SimpleCompetitions sc = readLegacy(args[0]);
+            sc.saveFile(args[1]);
+            System.out.printf("%d competitions have been converted.\n", sc.competitions.size());
+        } catch (Exception e) {
+            System.out.println("Something wrong happened while converting the file.");
+        }
+    }
+}
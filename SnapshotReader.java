@@ -0,0 +1,264 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The SnapshotReader class reads a snapshot file written by SnapshotWriter. The header is read
+ * when the reader is created; the competitions are then read one section at a time with next(),
+ * so a caller which only needs some of them never has all of them in memory at once.
+ * Reading a snapshot only creates Competition objects and primitive data, no class named in the
+ * file is ever loaded. A reader can also read a single section straight from a mapped buffer,
+ * which is how CompetitionArchive pages competitions back in.
+ *
+ * @see SnapshotWriter
+ * @see SimpleCompetitions
+ */
+public class SnapshotReader implements Closeable {
+    /*
+    @param channel          FileChannel of the snapshot file (null when reading a mapped section)
+    @param buffer           reused buffer which is refilled from channel, or the mapped section
+    @param version          version of the snapshot format
+    @param mode             mode of the saved SimpleCompetitions
+    @param competitionNum   number of competitions created
+    @param activeCpt        number of active competitions
+    @param completedCpt     number of completed competitions
+    @param competitionCount number of competition sections in the file
+    @param sectionsRead     number of competition sections read so far
+     */
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    private final short version;
+    private final char mode;
+    private final int competitionNum;
+    private final int activeCpt;
+    private final int completedCpt;
+    private final int competitionCount;
+    private int sectionsRead = 0;
+
+    /**
+     * SnapshotReader Constructor opens the snapshot file and reads its header.
+     *
+     * @param fileName path to the snapshot file
+     * @exception IOException file cannot be opened or read
+     * @exception DataFormatException the file is not a snapshot file of a supported version
+     */
+    public SnapshotReader(String fileName) throws IOException, DataFormatException {
+        this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocateDirect(1 << 16);
+        buffer.limit(0);
+        try {
+            this.require(4 + 2 + 2 + 4 * 4);
+            if (buffer.getInt() != SnapshotWriter.MAGIC) {
+                throw new DataFormatException("The snapshot file is not supported. Please check!");
+            }
+            this.version = buffer.getShort();
+            if (version != 1 && version != SnapshotWriter.VERSION) {
+                throw new DataFormatException("The snapshot file is not supported. Please check!");
+            }
+            this.mode = buffer.getChar();
+            this.competitionNum = buffer.getInt();
+            this.activeCpt = buffer.getInt();
+            this.completedCpt = buffer.getInt();
+            this.competitionCount = buffer.getInt();
+        } catch (IOException | DataFormatException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Overload Constructor reads exactly one competition section of the current version from a
+     * buffer.
+     *
+     * @param section buffer which holds one competition section
+     */
+    public SnapshotReader(ByteBuffer section) {
+        this.channel = null;
+        this.buffer = section;
+        this.version = SnapshotWriter.VERSION;
+        this.mode = 0;
+        this.competitionNum = 0;
+        this.activeCpt = 0;
+        this.completedCpt = 0;
+        this.competitionCount = 1;
+    }
+
+    //getters
+    public char getMode() {
+        return mode;
+    }
+
+    public int getCompetitionNum() {
+        return competitionNum;
+    }
+
+    public int getActiveCpt() {
+        return activeCpt;
+    }
+
+    public int getCompletedCpt() {
+        return completedCpt;
+    }
+
+    public int getCompetitionCount() {
+        return competitionCount;
+    }
+
+    /**
+     * This method checks whether there are more competition sections to read.
+     *
+     * @return whether next() can be called
+     */
+    public boolean hasNext() {
+        return sectionsRead < competitionCount;
+    }
+
+    /**
+     * This method reads the next competition section.
+     *
+     * @return a LuckyNumbersCompetition or RandomPickCompetition object
+     * @exception IOException file cannot be read
+     * @exception DataFormatException the section is incorrect
+     */
+    public Competition next() throws IOException, DataFormatException {
+        this.require(8 + 1 + 4 + 4);
+        buffer.getLong(); //section length, only needed to skip a section
+        byte type = buffer.get();
+        Competition competition;
+        if (type == 'L') {
+            competition = new LuckyNumbersCompetition();
+        } else if (type == 'R') {
+            competition = new RandomPickCompetition();
+        } else {
+            throw new DataFormatException("The snapshot file is incorrect. Please check!");
+        }
+        competition.setId(buffer.getInt());
+        competition.setName(new String(this.getBytes(buffer.getInt()), StandardCharsets.UTF_8));
+
+        this.require(4 * 5);
+        competition.setEntryID(buffer.getInt());
+        competition.setStartID(buffer.getInt());
+        competition.setWinnerNum(buffer.getInt());
+        competition.setTotalPrizes(buffer.getInt());
+        int winnerLength = buffer.getInt();
+        if (winnerLength >= 0) {
+            int[] winnerEntry = new int[winnerLength];
+            for (int i = 0; i < winnerLength; i++) {
+                this.require(4);
+                winnerEntry[i] = buffer.getInt();
+            }
+            competition.setWinnerEntry(winnerEntry);
+        }
+
+        this.require(4);
+        int winnerCount = buffer.getInt();
+        if (winnerCount < 0) {
+            throw new DataFormatException("The snapshot file is incorrect. Please check!");
+        }
+        //older snapshots list the winners in any order and with zero prizes
+        int[] winnerIds = new int[winnerCount];
+        int[] prizes = new int[winnerCount];
+        for (int i = 0; i < winnerCount; i++) {
+            this.require(8);
+            winnerIds[i] = buffer.getInt();
+            prizes[i] = buffer.getInt();
+        }
+        competition.drawResult = DrawResult.of(winnerIds, prizes, winnerCount);
+
+        this.require(4);
+        int entryCount = buffer.getInt();
+        if (version == 1) {
+            for (int i = 0; i < entryCount; i++) {
+                long packed = this.getPacked(SnapshotWriter.V1_ENTRY_BYTES);
+                competition.restoreEntry(
+                        CombinationCodec.rank(packed & (SnapshotWriter.V1_MANUAL_BIT - 1)),
+                        (int) (packed >>> SnapshotWriter.V1_BILL_SHIFT),
+                        (packed & SnapshotWriter.V1_MANUAL_BIT) != 0);
+            }
+        } else {
+            for (int i = 0; i < entryCount; i++) {
+                long packed = this.getPacked(SnapshotWriter.ENTRY_BYTES);
+                competition.restoreEntry((int) (packed & (SnapshotWriter.MANUAL_BIT - 1)) - 1,
+                        (int) (packed >>> SnapshotWriter.BILL_SHIFT),
+                        (packed & SnapshotWriter.MANUAL_BIT) != 0);
+            }
+        }
+        sectionsRead += 1;
+        return competition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * This method reads one packed entry, lowest byte first.
+     *
+     * @param bytes number of bytes of the packed entry
+     * @return packed entry
+     * @exception IOException file cannot be read
+     * @exception DataFormatException the file ends too early
+     */
+    private long getPacked(int bytes) throws IOException, DataFormatException {
+        this.require(bytes);
+        long packed = 0L;
+        for (int b = 0; b < bytes; b++) {
+            packed |= (buffer.get() & 0xFFL) << (8 * b);
+        }
+        return packed;
+    }
+
+    /**
+     * This method reads some bytes which may be more than the buffer holds.
+     *
+     * @param length number of bytes
+     * @return bytes read
+     * @exception IOException file cannot be read
+     * @exception DataFormatException the file ends too early
+     */
+    private byte[] getBytes(int length) throws IOException, DataFormatException {
+        if (length < 0) {
+            throw new DataFormatException("The snapshot file is incorrect. Please check!");
+        }
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            this.require(1);
+            int part = Math.min(buffer.remaining(), length - offset);
+            buffer.get(bytes, offset, part);
+            offset += part;
+        }
+        return bytes;
+    }
+
+    /**
+     * This method makes sure the buffer holds at least some more bytes.
+     *
+     * @param bytes number of bytes needed
+     * @exception IOException file cannot be read
+     * @exception DataFormatException the file ends too early
+     */
+    private void require(int bytes) throws IOException, DataFormatException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        if (channel == null) {
+            throw new DataFormatException("The snapshot file is incomplete. Please check!");
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new DataFormatException("The snapshot file is incomplete. Please check!");
+            }
+        }
+        buffer.flip();
+    }
+}
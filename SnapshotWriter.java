@@ -0,0 +1,227 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The SnapshotWriter class saves competitions into a versioned binary snapshot file. It replaces
+ * Java serialization of the whole SimpleCompetitions object. The file is written through a
+ * FileChannel with one reused buffer, one competition at a time, so saving never builds a second
+ * copy of the data in memory.
+ *
+ * Layout of a snapshot file (all numbers are big-endian):
+ * 1.header: magic "SCSN", version, mode, competitionNum, activeCpt, completedCpt and the number
+ *   of competition sections.
+ * 2.one section per competition: section length, type ('L' or 'R'), id, name, entryID, startID,
+ *   winnerNum, totalPrizes, winner entry, winners (entry ID and prize of every entry with a
+ *   prize, by entry ID) and entries.
+ * 3.every entry is packed into ENTRY_BYTES bytes: bits 0-22 CombinationCodec rank plus 1 (0 for
+ *   entries without numbers), bit 23 manual flag and bits 24-43 numeric Bill ID. Version 1 files
+ *   packed every entry into 7 bytes with the numbers bitmask in bits 0-34, the manual flag in
+ *   bit 35 and the Bill ID in bits 36-55; SnapshotReader still reads them.
+ *
+ * @see SnapshotReader
+ * @see SimpleCompetitions
+ */
+public class SnapshotWriter implements Closeable {
+    /*
+    @param MAGIC       constant represents first 4 bytes of a snapshot file ("SCSN")
+    @param VERSION     constant represents version of the snapshot format
+    @param ENTRY_BYTES constant represents number of bytes of one packed entry
+    @param MANUAL_BIT  constant represents bit of the manual flag in a packed entry
+    @param BILL_SHIFT  constant represents position of the Bill ID in a packed entry
+    @param V1_ENTRY_BYTES, V1_MANUAL_BIT and V1_BILL_SHIFT are the same for version 1 files
+
+    @param channel     FileChannel of the snapshot file
+    @param ownsChannel whether close() also closes channel
+    @param buffer      reused buffer which is flushed into channel when it is full
+     */
+    static final int MAGIC = 0x5343534E;
+    static final short VERSION = 2;
+    static final int ENTRY_BYTES = 6;
+    static final long MANUAL_BIT = 1L << 23;
+    static final int BILL_SHIFT = 24;
+    static final int V1_ENTRY_BYTES = 7;
+    static final long V1_MANUAL_BIT = 1L << 35;
+    static final int V1_BILL_SHIFT = 36;
+
+    private final FileChannel channel;
+    private final boolean ownsChannel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+
+    /**
+     * SnapshotWriter Constructor creates (or truncates) the snapshot file.
+     *
+     * @param fileName path to the snapshot file
+     * @exception IOException file cannot be created or written
+     */
+    public SnapshotWriter(String fileName) throws IOException {
+        this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.ownsChannel = true;
+    }
+
+    /**
+     * Overload Constructor writes competition sections at the current position of an open
+     * channel (e.g. the end of a CompetitionArchive). close() does not close the channel.
+     *
+     * @param channel FileChannel to write to
+     */
+    public SnapshotWriter(FileChannel channel) {
+        this.channel = channel;
+        this.ownsChannel = false;
+    }
+
+    /**
+     * This method writes the header of the snapshot file. It must be called once before the
+     * competitions are written.
+     *
+     * @param mode mode of the SimpleCompetitions
+     * @param competitionNum number of competitions created
+     * @param activeCpt number of active competitions
+     * @param completedCpt number of completed competitions
+     * @param competitionCount number of competition sections which follow
+     * @exception IOException file cannot be written
+     */
+    public void writeHeader(char mode, int competitionNum, int activeCpt, int completedCpt,
+                            int competitionCount) throws IOException {
+        this.ensure(4 + 2 + 2 + 4 * 4);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putChar(mode);
+        buffer.putInt(competitionNum);
+        buffer.putInt(activeCpt);
+        buffer.putInt(completedCpt);
+        buffer.putInt(competitionCount);
+    }
+
+    /**
+     * This method writes one competition section. An ArchivedCompetition is already stored as a
+     * section, so its bytes are copied from the archive without loading its entries.
+     *
+     * @param competition Competition object to save
+     * @exception IOException file cannot be written
+     */
+    public void writeCompetition(Competition competition) throws IOException {
+        if (competition instanceof ArchivedCompetition) {
+            this.flush();
+            ByteBuffer section = ((ArchivedCompetition) competition).section();
+            while (section.hasRemaining()) {
+                channel.write(section);
+            }
+            return;
+        }
+
+        byte[] name = competition.getName() == null ? new byte[0] :
+                competition.getName().getBytes(StandardCharsets.UTF_8);
+        int[] winnerEntry = competition.getWinnerEntry();
+        DrawResult winners = competition.getDrawResult();
+        int entryCount = competition.getEntryCount();
+
+        //length of everything after the length field
+        long sectionLength = 1 + 4 + 4 + name.length + 4 * 4
+                + 4 + (winnerEntry == null ? 0 : 4L * winnerEntry.length)
+                + 4 + 8L * winners.size()
+                + 4 + (long) ENTRY_BYTES * entryCount;
+
+        this.ensure(8 + 1 + 4 + 4);
+        buffer.putLong(sectionLength);
+        buffer.put((byte) (competition instanceof LuckyNumbersCompetition ? 'L' : 'R'));
+        buffer.putInt(competition.getId());
+        buffer.putInt(name.length);
+        this.putBytes(name);
+
+        this.ensure(4 * 5);
+        buffer.putInt(competition.getEntryID());
+        buffer.putInt(competition.getStartID());
+        buffer.putInt(competition.getWinnerNum());
+        buffer.putInt(competition.getTotalPrizes());
+        buffer.putInt(winnerEntry == null ? -1 : winnerEntry.length);
+        if (winnerEntry != null) {
+            for (int number : winnerEntry) {
+                this.ensure(4);
+                buffer.putInt(number);
+            }
+        }
+
+        this.ensure(4);
+        buffer.putInt(winners.size());
+        for (int i = 0; i < winners.size(); i++) {
+            this.ensure(8);
+            buffer.putInt(winners.getEntryId(i));
+            buffer.putInt(winners.getPrize(i));
+        }
+
+        this.ensure(4);
+        buffer.putInt(entryCount);
+        for (int entryId = 1; entryId <= entryCount; entryId++) {
+            long packed = (competition.getEntryRank(entryId) + 1)
+                    | (competition.isManualEntry(entryId) ? MANUAL_BIT : 0L)
+                    | ((long) competition.getEntryBillId(entryId) << BILL_SHIFT);
+            this.ensure(8);
+            for (int i = 0; i < ENTRY_BYTES; i++) {
+                buffer.put((byte) (packed >>> (8 * i)));
+            }
+        }
+    }
+
+    /**
+     * This method writes the rest of the buffer and closes the file if this writer opened it.
+     *
+     * @exception IOException file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            if (ownsChannel) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * This method makes sure the buffer has room for some more bytes.
+     *
+     * @param bytes number of bytes to be put into the buffer
+     * @exception IOException file cannot be written
+     */
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            this.flush();
+        }
+    }
+
+    /**
+     * This method puts an array of bytes which may be larger than the buffer.
+     *
+     * @param bytes bytes to write
+     * @exception IOException file cannot be written
+     */
+    private void putBytes(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            this.ensure(1);
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * This method writes the buffer into the file.
+     *
+     * @exception IOException file cannot be written
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,101 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The UsedBillIndex class records the bills which have been used in the current session.
+ * Bill IDs are 6-digit numbers, so the index is a bitset of one million bits keyed by the
+ * numeric Bill ID and checking whether a bill is used takes constant time. The Bill IDs are
+ * also kept in the order they were used, so they can be listed when the bill file is updated.
+ *
+ * The index is lock-free, so many threads can claim bills at the same time:
+ * 1.a bill is claimed by setting its bit with compare-and-set, so exactly one thread wins it.
+ * 2.the winner takes the next position of the order log from an atomic cursor. The log is split
+ *   into pages which are created on first use, also with compare-and-set.
+ * size() and get() are meant to be read after the claiming threads have finished (e.g. when the
+ * bill file is updated); a position taken by a running claim may still read as 0 before that.
+ *
+ * @see DataProvider
+ */
+public class UsedBillIndex {
+    /*
+    @param ID_COUNT   constant represents number of possible Bill IDs (000000 to 999999)
+    @param PAGE_SHIFT constant represents log2 of the number of Bill IDs in one log page
+    @param PAGE_MASK  constant represents mask of the position inside a log page
+
+    @param bits       bitset with the bit of every used Bill ID set
+    @param pages      pages of the numeric Bill IDs in the order they were used
+    @param size       number of used Bill IDs, also the next free position of the log
+     */
+    private static final int ID_COUNT = 1000000;
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+
+    private final AtomicLongArray bits = new AtomicLongArray((ID_COUNT + 63) >>> 6);
+    private final AtomicReferenceArray<AtomicIntegerArray> pages =
+            new AtomicReferenceArray<>((ID_COUNT >>> PAGE_SHIFT) + 1);
+    private final AtomicInteger size = new AtomicInteger();
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * This method checks whether a bill has been used.
+     *
+     * @param billId numeric Bill ID
+     * @return whether the bill has been used or not
+     */
+    public boolean contains(int billId) {
+        return (bits.get(billId >>> 6) & (1L << billId)) != 0;
+    }
+
+    /**
+     * This method marks a bill as used. When several threads mark the same bill at the same
+     * time, only one of them gets true.
+     *
+     * @param billId numeric Bill ID
+     * @return true if the bill was not used before
+     */
+    public boolean add(int billId) {
+        int word = billId >>> 6;
+        long bit = 1L << billId;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & bit) != 0) {
+                return false;
+            }
+        } while (!bits.compareAndSet(word, current, current | bit));
+
+        int index = size.getAndIncrement();
+        this.page(index >>> PAGE_SHIFT).set(index & PAGE_MASK, billId);
+        return true;
+    }
+
+    /**
+     * This method returns a used Bill ID by the order it was used.
+     *
+     * @param index position in the order, from 0 to size() - 1
+     * @return numeric Bill ID
+     */
+    public int get(int index) {
+        return this.page(index >>> PAGE_SHIFT).get(index & PAGE_MASK);
+    }
+
+    /**
+     * This method returns a page of the order log and creates it if no thread has done so yet.
+     *
+     * @param pageIndex position of the page
+     * @return the page
+     */
+    private AtomicIntegerArray page(int pageIndex) {
+        AtomicIntegerArray page = pages.get(pageIndex);
+        if (page == null) {
+            pages.compareAndSet(pageIndex, null, new AtomicIntegerArray(1 << PAGE_SHIFT));
+            page = pages.get(pageIndex);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The WinnerResolver class applies the "one prize per member, highest wins" rule in a single
+ * pass. Every candidate entry is offered once together with its numeric member id and prize. For
+ * each member only the entry with the highest prize is kept; if two entries of the same member
+ * have the same prize, the one with the lowest entry id wins.
+ *
+ * Member IDs are 6-digit numbers, so the best entry of every member is kept in tables indexed
+ * directly by the ID, like RecordDirectory does, and an offer costs no hashing and no objects.
+ * Bills without member (Bill.NO_MEMBER) are resolved together as one member.
+ *
+ * @see LuckyNumbersCompetition
+ * @see RecordDirectory
+ */
+public class WinnerResolver {
+    /*
+    @param bestEntry   best entry id of every numeric member id + 1, 0 if none is offered yet
+    @param bestPrize   prize of the best entry of every numeric member id + 1
+    @param members     numeric member ids + 1 with an entry offered, in order of the first offer
+    @param memberCount number of member ids in members
+     */
+    private final int[] bestEntry = new int[RecordDirectory.ID_COUNT + 1];
+    private final int[] bestPrize = new int[RecordDirectory.ID_COUNT + 1];
+    private int[] members = new int[64];
+    private int memberCount = 0;
+
+    /**
+     * This method offers a candidate entry to the resolver.
+     *
+     * @param memberId numeric Member ID of the owner of the entry, or Bill.NO_MEMBER
+     * @param entryId entry identifier, at least 1
+     * @param prize prize of the entry
+     */
+    public void offer(int memberId, int entryId, int prize) {
+        int key = memberId + 1;
+        int best = bestEntry[key];
+        if (best == 0) {
+            if (memberCount == members.length) {
+                members = Arrays.copyOf(members, memberCount * 2);
+            }
+            members[memberCount] = key;
+            memberCount += 1;
+            bestEntry[key] = entryId;
+            bestPrize[key] = prize;
+        } else if (prize > bestPrize[key] || (prize == bestPrize[key] && entryId < best)) {
+            bestEntry[key] = entryId;
+            bestPrize[key] = prize;
+        }
+    }
+
+    /**
+     * This method returns the entries which keep their prize after the rule is applied.
+     *
+     * @return BitSet with the id of every winning entry set
+     */
+    public BitSet winners() {
+        BitSet winners = new BitSet();
+        for (int i = 0; i < memberCount; i++) {
+            if (bestPrize[members[i]] > 0) {
+                winners.set(bestEntry[members[i]]);
+            }
+        }
+        return winners;
+    }
+}
@@ -0,0 +1,125 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The ArchivedCompetitionTest class moves completed competitions into a CompetitionArchive and
+ * checks that ArchivedCompetition.load() pages back in the same competition: summary, winners
+ * and every entry.
+ *
+ * @see ArchivedCompetition
+ * @see CompetitionArchive
+ */
+public class ArchivedCompetitionTest {
+    /*
+    @param BILLS number of bills in the bill file, Bill IDs from 100000
+     */
+    private static final int BILLS = 40;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void loadReturnsTheArchivedCompetitions() throws Exception {
+        DataProvider dataProvider = this.dataProvider();
+        Competition lucky = this.completed(new LuckyNumbersCompetition(), 1, dataProvider);
+        Competition random = this.completed(new RandomPickCompetition(), 2, dataProvider);
+
+        try (CompetitionArchive archive = new CompetitionArchive()) {
+            ArchivedCompetition archivedLucky = archive.archive(lucky);
+            ArchivedCompetition archivedRandom = archive.archive(random);
+            assertEquals('L', archivedLucky.getType());
+            assertEquals('R', archivedRandom.getType());
+
+            //page them in the other way round, and twice, to read from the shared mapping
+            for (int round = 0; round < 2; round++) {
+                ArchivedCompetitionTest.assertSameCompetition(random, archivedRandom.load());
+                ArchivedCompetitionTest.assertSameCompetition(lucky, archivedLucky.load());
+            }
+        }
+    }
+
+    /**
+     * This method checks that a competition read back from the archive equals the original.
+     *
+     * @param expected Competition object which was archived
+     * @param actual Competition object which was loaded
+     */
+    private static void assertSameCompetition(Competition expected, Competition actual) {
+        assertSame(expected.getClass(), actual.getClass());
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getEntryID(), actual.getEntryID());
+        assertEquals(expected.getStartID(), actual.getStartID());
+        assertEquals(expected.getWinnerNum(), actual.getWinnerNum());
+        assertEquals(expected.getTotalPrizes(), actual.getTotalPrizes());
+        assertArrayEquals(expected.getWinnerEntry(), actual.getWinnerEntry());
+
+        DrawResult expectedResult = expected.getDrawResult();
+        DrawResult actualResult = actual.getDrawResult();
+        assertEquals(expectedResult.size(), actualResult.size());
+        for (int i = 0; i < expectedResult.size(); i++) {
+            assertEquals(expectedResult.getEntryId(i), actualResult.getEntryId(i));
+            assertEquals(expectedResult.getPrize(i), actualResult.getPrize(i));
+        }
+
+        assertEquals(expected.getEntryCount(), actual.getEntryCount());
+        for (int i = 1; i <= expected.getEntryCount(); i++) {
+            assertEquals(expected.getEntryBillId(i), actual.getEntryBillId(i));
+            assertEquals(expected.getEntryRank(i), actual.getEntryRank(i));
+            assertEquals(expected.isManualEntry(i), actual.isManualEntry(i));
+        }
+    }
+
+    /**
+     * This method adds entries of every bill to a competition and draws its winners.
+     *
+     * @param competition new Competition object
+     * @param id identifier of the competition
+     * @param dataProvider DataProvider object with the bills
+     * @return the competition, completed
+     */
+    private Competition completed(Competition competition, int id, DataProvider dataProvider) {
+        competition.setId(id);
+        competition.setName("Archived " + id);
+        long[] manual = {NumbersEntry.toMask(new int[] {1, 2, 3, 4, 5, 6, 7})};
+        for (int i = 0; i < BILLS; i++) {
+            competition.createEntries(Bill.formatBillId(100000 + i), 1 + i % 5,
+                    i % 3 == 0 ? manual : new long[0], 'T');
+        }
+        competition.setOutput(OutputSink.discard());
+        competition.drawWinners(dataProvider, 'T');
+        assertTrue(competition.getEntryCount() > BILLS);
+        return competition;
+    }
+
+    /**
+     * This method writes a member file and a bill file and loads them.
+     *
+     * @return DataProvider object of the files
+     * @exception IOException files cannot be written
+     */
+    private DataProvider dataProvider() throws IOException {
+        StringBuilder members = new StringBuilder();
+        StringBuilder bills = new StringBuilder();
+        for (int m = 0; m < 4; m++) {
+            members.append(111111 * (m + 1)).append(",Member").append(m)
+                    .append(",member").append(m).append("@abc.com\n");
+        }
+        for (int i = 0; i < BILLS; i++) {
+            bills.append(100000 + i).append(',').append(111111 * (i % 4 + 1))
+                    .append(",100.0,false\n");
+        }
+        Path memberFile = Files.writeString(dir.resolve("members.csv"), members);
+        Path billFile = Files.writeString(dir.resolve("bills.csv"), bills);
+        return new DataProvider(memberFile.toString(), billFile.toString());
+    }
+}
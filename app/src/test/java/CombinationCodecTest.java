@@ -0,0 +1,72 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The CombinationCodecTest class checks CombinationCodec against every set of 7 numbers from 1
+ * to 35. Gosper's hack enumerates the sets as bitmasks in ascending order, which is the
+ * colexicographic order the ranks follow, so the n-th set must have rank n.
+ *
+ * @see CombinationCodec
+ */
+public class CombinationCodecTest {
+
+    @Test
+    public void everySetRoundTrips() {
+        int expected = 0;
+        for (long mask = (1L << 7) - 1; mask < 1L << 35; mask = CombinationCodecTest.next(mask)) {
+            int rank = CombinationCodec.rank(mask);
+            assertEquals(expected, rank);
+            assertEquals(mask, CombinationCodec.toMask(rank));
+            assertArrayEquals(NumbersEntry.toNumbers(mask), CombinationCodec.toNumbers(rank));
+            expected += 1;
+        }
+        assertEquals(CombinationCodec.COUNT, expected);
+    }
+
+    @Test
+    public void rankOfNumbersIgnoresOrder() {
+        int rank = CombinationCodec.rank(new int[] {35, 1, 17, 2, 34, 18, 3});
+        assertEquals(NumbersEntry.toMask(new int[] {1, 2, 3, 17, 18, 34, 35}),
+                CombinationCodec.toMask(rank));
+        assertEquals(0, CombinationCodec.rank(new int[] {7, 6, 5, 4, 3, 2, 1}));
+        assertEquals(CombinationCodec.COUNT - 1,
+                CombinationCodec.rank(new int[] {29, 30, 31, 32, 33, 34, 35}));
+    }
+
+    @Test
+    public void noNumbers() {
+        assertEquals(CombinationCodec.NO_NUMBERS, CombinationCodec.rank(0L));
+        assertEquals(0L, CombinationCodec.toMask(CombinationCodec.NO_NUMBERS));
+    }
+
+    @Test
+    public void invalidInputIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CombinationCodec.rank(0x3FL));
+        assertThrows(IllegalArgumentException.class, () -> CombinationCodec.rank(0xFFL));
+        assertThrows(IllegalArgumentException.class, () -> CombinationCodec.rank(0x3FL | 1L << 35));
+        assertThrows(IllegalArgumentException.class,
+                () -> CombinationCodec.rank(new int[] {1, 2, 3, 4, 5, 6, 6}));
+        assertThrows(IllegalArgumentException.class,
+                () -> CombinationCodec.rank(new int[] {0, 2, 3, 4, 5, 6, 7}));
+        assertThrows(IllegalArgumentException.class,
+                () -> CombinationCodec.rank(new int[] {1, 2, 3, 4, 5, 6}));
+        assertThrows(IllegalArgumentException.class,
+                () -> CombinationCodec.toMask(CombinationCodec.COUNT));
+        assertThrows(IllegalArgumentException.class, () -> CombinationCodec.toNumbers(-1));
+    }
+
+    /**
+     * This method returns the next larger bitmask with the same number of bits (Gosper's hack).
+     *
+     * @param mask bitmask
+     * @return next larger bitmask with as many bits set
+     */
+    private static long next(long mask) {
+        long lowest = mask & -mask;
+        long ripple = mask + lowest;
+        return ripple | (((mask ^ ripple) >>> 2) / lowest);
+    }
+}
@@ -0,0 +1,67 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The CsvLoaderTest class checks that the bill file accepts the same amounts as Double.valueOf,
+ * which older versions used: plain decimal numbers are parsed by hand and everything else is
+ * left to the JDK.
+ *
+ * @see CsvLoader
+ */
+public class CsvLoaderTest {
+    /*
+    @param AMOUNTS amounts which Double.valueOf accepts
+    @param INVALID amounts which Double.valueOf rejects
+     */
+    private static final String[] AMOUNTS = {
+            "300.5", "0", "-0.5", "+3", "7.", ".25", "340.80", "123456789012345",
+            "1234567890123456789.5", "0.1234567890123456789", "1e3", "2.5E-2", " 300.5 ",
+            "12d", "4.5f", "Infinity", "-Infinity", "NaN", "0x1p3"
+    };
+    private static final String[] INVALID = {"", "abc", ".", "+", "1.2.3", "1,5", "--1", "1e"};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void amountsMatchDoubleValueOf() throws Exception {
+        StringBuilder bills = new StringBuilder();
+        for (int i = 0; i < AMOUNTS.length; i++) {
+            bills.append(100000 + i).append(",111111,").append(AMOUNTS[i]).append(",false\n");
+        }
+        RecordDirectory directory = this.load(bills.toString());
+        for (int i = 0; i < AMOUNTS.length; i++) {
+            Bill bill = new Bill(directory, directory.find(100000 + i));
+            assertEquals(Double.valueOf(AMOUNTS[i]), bill.getTotalAmount(), AMOUNTS[i]);
+        }
+    }
+
+    @Test
+    public void invalidAmountsAreRejected() {
+        for (String amount : INVALID) {
+            assertThrows(DataFormatException.class,
+                    () -> this.load("100000,111111,300.5,false\n100001,111111," + amount +
+                            ",false\n"), amount);
+        }
+    }
+
+    /**
+     * This method writes a bill file and loads it.
+     *
+     * @param content lines of the bill file
+     * @return RecordDirectory with the bills
+     * @exception Exception file cannot be written or loaded
+     */
+    private RecordDirectory load(String content) throws Exception {
+        Path billFile = Files.writeString(dir.resolve("bills.csv"), content);
+        RecordDirectory bills = new RecordDirectory(Bill.RECORD_BYTES);
+        new CsvLoader(billFile.toString()).loadBills(bills);
+        return bills;
+    }
+}
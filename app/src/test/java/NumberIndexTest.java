@@ -0,0 +1,167 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The NumberIndexTest class checks the results of NumberIndex against a full scan of the entries.
+ * The entries span several chunks and end in a partly filled one, and the numbers are picked
+ * with different weights so every kind of container is used:
+ * 1.numbers 1 to 7 are in most entries, so their containers become bitmaps early in a chunk.
+ * 2.numbers 8 to 28 pass ARRAY_LIMIT (4096) halfway through a chunk.
+ * 3.numbers 29 to 34 are rare and stay in array containers.
+ * 4.number 35 is never picked, so its containers are empty.
+ *
+ * @see NumberIndex
+ */
+public class NumberIndexTest {
+    /*
+    @param CHUNK_SIZE  constant represents number of entries per chunk of NumberIndex
+    @param ARRAY_LIMIT constant represents largest array container of NumberIndex
+    @param SIZE        constant represents number of entries in the index
+    @param WEIGHTS     constant represents how often each number is picked, by number - 1
+
+    @param masks       numbers bitmasks of the entries, by entry ID - 1
+    @param index       NumberIndex of the entries
+    @param luckyMasks  sets of lucky numbers the index is checked with
+     */
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int SIZE = 3 * CHUNK_SIZE + 12345;
+    private static final int[] WEIGHTS = new int[35];
+
+    private static long[] masks;
+    private static NumberIndex index;
+    private static long[] luckyMasks;
+
+    @BeforeAll
+    public static void buildIndex() {
+        for (int n = 1; n <= 35; n++) {
+            WEIGHTS[n - 1] = n <= 7 ? 40 : n <= 28 ? 10 : n <= 34 ? 1 : 0;
+        }
+        Random random = new Random(20261018L);
+        masks = new long[SIZE];
+        index = new NumberIndex();
+        for (int i = 0; i < SIZE; i++) {
+            masks[i] = NumberIndexTest.pick(random, 7);
+            index.add(i + 1, masks[i]);
+        }
+        assertEquals(SIZE, index.size());
+
+        //make sure the entries really cover every kind of container in the first chunk
+        int[] counts = new int[35];
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            for (long rest = masks[i]; rest != 0; rest &= rest - 1) {
+                counts[Long.numberOfTrailingZeros(rest)] += 1;
+            }
+        }
+        assertTrue(counts[0] > CHUNK_SIZE / 2);
+        assertTrue(counts[7] > ARRAY_LIMIT && counts[7] < CHUNK_SIZE / 4);
+        assertTrue(counts[28] > 0 && counts[28] < ARRAY_LIMIT);
+        assertEquals(0, counts[34]);
+
+        luckyMasks = new long[] {
+                0L,
+                NumbersEntry.toMask(new int[] {1, 2, 3, 4, 5, 6, 7}),
+                NumbersEntry.toMask(new int[] {8, 9, 10, 11, 12, 13, 14}),
+                NumbersEntry.toMask(new int[] {29, 30, 31, 32, 33, 34, 35}),
+                NumbersEntry.toMask(new int[] {1, 2, 8, 20, 28, 29, 35}),
+                NumbersEntry.toMask(new int[] {3, 15, 30}),
+                NumbersEntry.toMask(new int[] {35}),
+                NumberIndexTest.pick(random, 7),
+                NumberIndexTest.pick(random, 7),
+                NumberIndexTest.pick(random, 5)
+        };
+    }
+
+    @Test
+    public void matchHistogramEqualsScan() {
+        for (long luckyMask : luckyMasks) {
+            long[] expected = new long[8];
+            for (long mask : masks) {
+                expected[Long.bitCount(mask & luckyMask)] += 1;
+            }
+            assertArrayEquals(expected, index.matchHistogram(luckyMask),
+                    Arrays.toString(NumbersEntry.toNumbers(luckyMask)));
+        }
+    }
+
+    @Test
+    public void forEachMatchEqualsScan() {
+        for (long luckyMask : luckyMasks) {
+            for (int minMatches = 1; minMatches <= 7; minMatches++) {
+                long[] expected = new long[SIZE];
+                int expectedCount = 0;
+                for (int i = 0; i < SIZE; i++) {
+                    int matches = Long.bitCount(masks[i] & luckyMask);
+                    if (matches >= minMatches) {
+                        expected[expectedCount] = NumberIndexTest.visit(i + 1, matches);
+                        expectedCount += 1;
+                    }
+                }
+
+                long[] visited = new long[SIZE];
+                int[] visitedCount = new int[1];
+                index.forEachMatch(luckyMask, minMatches, (entryId, matches) -> {
+                    visited[visitedCount[0]] = NumberIndexTest.visit(entryId, matches);
+                    visitedCount[0] += 1;
+                });
+                assertArrayEquals(Arrays.copyOf(expected, expectedCount),
+                        Arrays.copyOf(visited, visitedCount[0]),
+                        Arrays.toString(NumbersEntry.toNumbers(luckyMask)) + " min " + minMatches);
+            }
+        }
+    }
+
+    @Test
+    public void invalidArgumentsAreRejected() {
+        NumberIndex small = new NumberIndex();
+        small.add(1, masks[0]);
+        assertThrows(IllegalArgumentException.class, () -> small.add(3, masks[1]));
+        assertThrows(IllegalArgumentException.class, () -> small.add(1, masks[1]));
+        long eightNumbers = NumbersEntry.toMask(new int[] {1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IllegalArgumentException.class, () -> small.matchHistogram(eightNumbers));
+        assertThrows(IllegalArgumentException.class, () -> small.matchHistogram(1L << 35));
+        assertThrows(IllegalArgumentException.class,
+                () -> small.forEachMatch(masks[0], 0, (entryId, matches) -> { }));
+    }
+
+    /**
+     * This method picks different numbers with the weights of WEIGHTS.
+     *
+     * @param random Random to pick with
+     * @param count how many numbers to pick
+     * @return numbers bitmask of the picked numbers
+     */
+    private static long pick(Random random, int count) {
+        int total = Arrays.stream(WEIGHTS).sum();
+        long mask = 0L;
+        while (Long.bitCount(mask) < count) {
+            int ticket = random.nextInt(total);
+            int n = 0;
+            while (ticket >= WEIGHTS[n]) {
+                ticket -= WEIGHTS[n];
+                n += 1;
+            }
+            mask |= 1L << n;
+        }
+        return mask;
+    }
+
+    /**
+     * This method packs a visited entry into one long, so visits compare as an array.
+     *
+     * @param entryId entry ID
+     * @param matches number of lucky numbers in the entry
+     * @return entry ID and matches in one long
+     */
+    private static long visit(int entryId, int matches) {
+        return (long) entryId << 3 | matches;
+    }
+}
@@ -0,0 +1,306 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.IntSupplier;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongSupplier;
+import java.util.function.LongToIntFunction;
+import java.util.function.Supplier;
+
+/**
+ * The BenchmarkWorkloads class prepares the work measured by the JMH benchmarks. It is in the
+ * default package like the classes of SimpleCompetitions, so it can reach their package-private
+ * parts, and it hands every workload out as a java.util.function object which the benchmarks in
+ * simplecompetitions.benchmarks call without knowing these classes.
+ * Everything which is not measured (loading the files, adding the entries) happens here, before
+ * the workload is returned.
+ *
+ * @see Competition
+ * @see DataProvider
+ */
+public class BenchmarkWorkloads {
+    /*
+    @param ENTRY_PRICE  constant represents amount of a bill for one entry
+    @param BILL_ENTRIES constant represents entries of every bill of a snapshot competition
+     */
+    private static final int ENTRY_PRICE = 50;
+    private static final int BILL_ENTRIES = 10;
+
+    /**
+     * This method creates auto entry numbers again and again with one generator.
+     *
+     * @param testing whether the numbers are seeded (Testing mode) or random (Normal mode)
+     * @return LongSupplier which creates the numbers of one entry and returns its bitmask
+     */
+    public static LongSupplier autoNumbers(boolean testing) {
+        AutoNumbersEntry entry = new AutoNumbersEntry();
+        NumbersGenerator generator = new NumbersGenerator();
+        int[] seed = {0};
+        if (testing) {
+            return () -> {
+                entry.createNumbers(generator, seed[0]++);
+                return entry.getNumbersMask();
+            };
+        }
+        return () -> {
+            entry.createNumbers(generator);
+            return entry.getNumbersMask();
+        };
+    }
+
+    /**
+     * This method adds a batch of auto entries to a new LuckyNumbersCompetition again and again.
+     * Large batches are filled in parallel with the random number streams of RandomProvider.
+     *
+     * @param count number of auto entries of the batch
+     * @param mode "T" for Testing mode and "N" for Normal mode
+     * @return Runnable which creates a competition and adds the entries
+     */
+    public static Runnable autoEntries(int count, String mode) {
+        return () -> {
+            LuckyNumbersCompetition competition =
+                    (LuckyNumbersCompetition) BenchmarkWorkloads.newCompetition("L");
+            competition.addAutoEntries("000000", count, mode.charAt(0));
+        };
+    }
+
+    /**
+     * This method returns the prize of a LuckyNumbersCompetition entry.
+     *
+     * @return LongBinaryOperator of the winner and the entry bitmasks which returns the prize
+     */
+    public static LongBinaryOperator prize() {
+        return LuckyNumbersCompetition::prize;
+    }
+
+    /**
+     * This method returns the CombinationCodec rank of a numbers bitmask.
+     *
+     * @return LongToIntFunction of a numbers bitmask which returns its rank
+     */
+    public static LongToIntFunction rank() {
+        return CombinationCodec::rank;
+    }
+
+    /**
+     * This method returns the numbers bitmask of a CombinationCodec rank.
+     *
+     * @return IntToLongFunction of a rank which returns its numbers bitmask
+     */
+    public static IntToLongFunction unrank() {
+        return CombinationCodec::toMask;
+    }
+
+    /**
+     * This method counts the duplicate picks of a LuckyNumbersCompetition again and again.
+     *
+     * @param entries number of auto entries of the competition
+     * @return IntSupplier which returns the number of entries with numbers picked before
+     */
+    public static IntSupplier duplicatePicks(int entries) {
+        LuckyNumbersCompetition competition =
+                (LuckyNumbersCompetition) BenchmarkWorkloads.newCompetition("L");
+        competition.addAutoEntries("000000", entries, 'T');
+        return () -> competition.countDuplicatePicks().getDuplicates();
+    }
+
+    /**
+     * This method estimates the prizes of the next draw of a LuckyNumbersCompetition again and
+     * again. Its NumberIndex is built before the workload is returned.
+     *
+     * @param entries number of auto entries of the competition
+     * @return LongSupplier which returns the total prize if the most picked numbers are drawn
+     */
+    public static LongSupplier estimateLiability(int entries) {
+        LuckyNumbersCompetition competition =
+                (LuckyNumbersCompetition) BenchmarkWorkloads.newCompetition("L");
+        competition.addAutoEntries("000000", entries, 'T');
+        competition.estimateLiability();
+        return () -> competition.estimateLiability().getHotTotalPrize();
+    }
+
+    /**
+     * This method loads a DataProvider again and again.
+     *
+     * @param memberFile path to the member file
+     * @param billFile path to the bill file
+     * @return Supplier of a newly loaded DataProvider
+     */
+    public static Supplier<Object> dataProvider(String memberFile, String billFile) {
+        return () -> new DataProvider(memberFile, billFile);
+    }
+
+    /**
+     * This method claims some bills and writes their status into the bill file again and again.
+     * Only "true " is written over the same places, so the file stays the same after the first
+     * time.
+     *
+     * @param memberFile path to the member file
+     * @param billFile path to the bill file, which is changed
+     * @param usedBills number of bills to claim (at most the bills in the file)
+     * @return Runnable which updates the bill file
+     */
+    public static Runnable updateBillFile(String memberFile, String billFile, int usedBills) {
+        DataProvider dataProvider = new DataProvider(memberFile, billFile);
+        for (int i = 0; i < usedBills; i++) {
+            dataProvider.tryClaim(i);
+        }
+        return dataProvider::updateBillFile;
+    }
+
+    /**
+     * This method creates a competition whose entries come from the bills of a bill file, in
+     * order of Bill ID, and draws its winners again and again in Testing mode. The winners are
+     * thrown away instead of printed.
+     * The competition is drawn once before the workload is returned, so the NumberIndex of a
+     * LuckyNumbersCompetition is already built and every measured draw evaluates the same lucky
+     * numbers on it (e.g. like trying the draw again); building the index is measured by
+     * coldDraws. The winner count and total prizes are reset before every draw, so they do not
+     * add up over the run.
+     *
+     * @param memberFile path to the member file
+     * @param billFile path to the bill file, with enough bills for the entries
+     * @param type "L" for LuckyNumbersCompetition and "R" for RandomPickCompetition
+     * @param entries number of entries
+     * @return Runnable which draws the winners
+     */
+    public static Runnable drawWinners(String memberFile, String billFile, String type,
+                                       int entries) {
+        DataProvider dataProvider = new DataProvider(memberFile, billFile);
+        Competition competition = BenchmarkWorkloads.drawCompetition(dataProvider, type, entries);
+        competition.drawWinners(dataProvider, 'T');
+        return () -> {
+            competition.setWinnerNum(0);
+            competition.setTotalPrizes(0);
+            competition.drawWinners(dataProvider, 'T');
+        };
+    }
+
+    /**
+     * This method prepares the entries of a competition like drawWinners, and hands out a new
+     * competition with a copy of them for every draw. Nothing of a draw is kept for the next one,
+     * so a draw of a LuckyNumbersCompetition also builds its NumberIndex, like the single draw of
+     * a real competition. Copying the entries is left to the caller's setup and is not part of
+     * the returned Runnable.
+     *
+     * @param memberFile path to the member file
+     * @param billFile path to the bill file, with enough bills for the entries
+     * @param type "L" for LuckyNumbersCompetition and "R" for RandomPickCompetition
+     * @param entries number of entries
+     * @return Supplier of a Runnable which draws the winners of a new competition once
+     */
+    public static Supplier<Runnable> coldDraws(String memberFile, String billFile, String type,
+                                               int entries) {
+        DataProvider dataProvider = new DataProvider(memberFile, billFile);
+        Competition prepared = BenchmarkWorkloads.drawCompetition(dataProvider, type, entries);
+        return () -> {
+            Competition competition = BenchmarkWorkloads.newCompetition(type);
+            competition.setOutput(OutputSink.discard());
+            for (int i = 1; i <= prepared.getEntryCount(); i++) {
+                competition.restoreEntry(prepared.getEntryRank(i), prepared.getEntryBillId(i),
+                        prepared.isManualEntry(i));
+            }
+            competition.setEntryID(prepared.getEntryID());
+            competition.setStartID(prepared.getStartID());
+            return () -> competition.drawWinners(dataProvider, 'T');
+        };
+    }
+
+    /**
+     * This method saves a snapshot of one LuckyNumbersCompetition and one RandomPickCompetition
+     * again and again.
+     *
+     * @param fileName path to the snapshot file
+     * @param entries number of entries of each competition
+     * @return Runnable which saves the snapshot
+     */
+    public static Runnable saveSnapshot(String fileName, int entries) {
+        SimpleCompetitions sc = new SimpleCompetitions();
+        sc.competitions.add(BenchmarkWorkloads.snapshotCompetition("L", entries));
+        sc.competitions.add(BenchmarkWorkloads.snapshotCompetition("R", entries));
+        return () -> {
+            try {
+                sc.saveFile(fileName);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    /**
+     * This method reads a snapshot file again and again.
+     *
+     * @param fileName path to a snapshot file saved by saveSnapshot
+     * @return Supplier of the SimpleCompetitions read from the file
+     */
+    public static Supplier<Object> loadSnapshot(String fileName) {
+        return () -> {
+            try {
+                return SimpleCompetitions.readFile(fileName);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    /**
+     * This method creates a competition whose entries come from the bills of a bill file, in
+     * order of Bill ID, as many entries per bill as its amount pays for. The winners of the
+     * competition are thrown away instead of printed.
+     *
+     * @param dataProvider DataProvider object with the bills
+     * @param type "L" for LuckyNumbersCompetition and "R" for RandomPickCompetition
+     * @param entries number of entries
+     * @return the new competition
+     */
+    private static Competition drawCompetition(DataProvider dataProvider, String type,
+                                               int entries) {
+        Competition competition = BenchmarkWorkloads.newCompetition(type);
+        competition.setOutput(OutputSink.discard());
+        int billId = 0;
+        while (competition.getEntryID() < entries) {
+            Bill bill = dataProvider.getBill(billId);
+            if (bill == null) {
+                throw new IllegalArgumentException("There are not enough bills for the entries.");
+            }
+            int entryNum = Math.min((int) (bill.getTotalAmount() / ENTRY_PRICE),
+                    entries - competition.getEntryID());
+            if (entryNum > 0) {
+                competition.createEntries(bill.getBillId(), entryNum, new long[0], 'T');
+            }
+            billId += 1;
+        }
+        return competition;
+    }
+
+    /**
+     * This method creates an empty competition.
+     *
+     * @param type "L" for LuckyNumbersCompetition and "R" for RandomPickCompetition
+     * @return the new competition with ID 1
+     */
+    private static Competition newCompetition(String type) {
+        Competition competition = type.equals("L") ? new LuckyNumbersCompetition() :
+                new RandomPickCompetition();
+        competition.setId(1);
+        competition.setName("Benchmark");
+        return competition;
+    }
+
+    /**
+     * This method creates an active competition for a snapshot, with BILL_ENTRIES auto entries
+     * per bill. The bills do not have to exist in any bill file.
+     *
+     * @param type "L" for LuckyNumbersCompetition and "R" for RandomPickCompetition
+     * @param entries number of entries
+     * @return the new competition
+     */
+    private static Competition snapshotCompetition(String type, int entries) {
+        Competition competition = BenchmarkWorkloads.newCompetition(type);
+        for (int billId = 0; competition.getEntryID() < entries; billId++) {
+            competition.createEntries(Bill.formatBillId(billId % 1000000),
+                    Math.min(BILL_ENTRIES, entries - competition.getEntryID()), new long[0], 'T');
+        }
+        return competition;
+    }
+}
@@ -0,0 +1,81 @@
+package simplecompetitions.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The ColdDrawBenchmark class measures the single draw of a new competition, which is what a
+ * real competition does: for a LuckyNumbersCompetition ("L") it includes building the
+ * NumberIndex of the entries. Every iteration draws one new competition with a copy of the same
+ * entries, made in the iteration setup, so it is measured as a single shot. DrawBenchmark
+ * measures drawing a competition again once its index is built.
+ *
+ * @see DrawBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ColdDrawBenchmark {
+    /*
+    @param MEMBERS  constant represents number of synthetic members
+    @param BILLS    constant represents number of synthetic bills, enough for 1M entries
+
+    @param type     type of the competition
+    @param entries  number of entries of the competition
+    @param dir      directory of the synthetic files
+    @param draws    hands out a new competition with the entries for every draw
+    @param draw     draws the winners of the competition of the current iteration
+     */
+    private static final int MEMBERS = 10000;
+    private static final int BILLS = 200000;
+
+    @Param({"L", "R"})
+    public String type;
+
+    @Param({"1000", "100000", "1000000"})
+    public int entries;
+
+    private Path dir;
+    private Supplier<Runnable> draws;
+    private Runnable draw;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.dir = Workloads.dataDir(MEMBERS, BILLS);
+        this.draws = Workloads.get("coldDraws", dir.resolve(SyntheticData.MEMBER_FILE).toString(),
+                dir.resolve(SyntheticData.BILL_FILE).toString(), type, entries);
+    }
+
+    @Setup(Level.Iteration)
+    public void newCompetition() {
+        this.draw = draws.get();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Workloads.delete(dir);
+    }
+
+    @Benchmark
+    public void drawWinners() {
+        draw.run();
+    }
+}
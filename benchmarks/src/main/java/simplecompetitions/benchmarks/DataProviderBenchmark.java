@@ -0,0 +1,75 @@
+package simplecompetitions.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The DataProviderBenchmark class measures loading the member and bill files into a
+ * DataProvider, and writing the status of the used bills back with updateBillFile, for synthetic
+ * files of different sizes. A tenth of the bills are used for updateBillFile.
+ *
+ * @see SyntheticData
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class DataProviderBenchmark {
+    /*
+    @param bills          number of bills (and a tenth as many members)
+    @param dir            directory of the synthetic files
+    @param load           loads a DataProvider
+    @param updateBillFile writes the status of the used bills
+     */
+    @Param({"10000", "100000", "1000000"})
+    public int bills;
+
+    private Path dir;
+    private Supplier<Object> load;
+    private Runnable updateBillFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.dir = Workloads.dataDir(Math.max(1, bills / 10), bills);
+        String memberFile = dir.resolve(SyntheticData.MEMBER_FILE).toString();
+        String billFile = dir.resolve(SyntheticData.BILL_FILE).toString();
+        this.load = Workloads.get("dataProvider", memberFile, billFile);
+
+        //updateBillFile changes its file, so it gets a copy of its own
+        Path usedFile = Files.copy(dir.resolve(SyntheticData.BILL_FILE), dir.resolve("used.csv"));
+        this.updateBillFile = Workloads.get("updateBillFile", memberFile, usedFile.toString(),
+                bills / 10);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Workloads.delete(dir);
+    }
+
+    @Benchmark
+    public Object load() {
+        return load.get();
+    }
+
+    @Benchmark
+    public void updateBillFile() {
+        updateBillFile.run();
+    }
+}
@@ -0,0 +1,80 @@
+package simplecompetitions.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The DrawBenchmark class measures drawWinners of LuckyNumbersCompetition ("L") and
+ * RandomPickCompetition ("R") with 1k, 100k and 1M entries. The entries are added from synthetic
+ * bills before the measurement; the winners are drawn in Testing mode with every random number
+ * generator of RandomProvider and thrown away instead of printed.
+ * Every invocation draws the same competition again, whose NumberIndex has been built in the
+ * setup, so this is the time of a warm draw. The first draw of a competition, which builds the
+ * index as well, is measured by ColdDrawBenchmark.
+ *
+ * @see ColdDrawBenchmark
+ * @see SyntheticData
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class DrawBenchmark {
+    /*
+    @param MEMBERS  constant represents number of synthetic members
+    @param BILLS    constant represents number of synthetic bills, enough for 1M entries
+
+    @param random   random number generator of RandomProvider
+    @param type     type of the competition
+    @param entries  number of entries of the competition
+    @param dir      directory of the synthetic files
+    @param draw     draws the winners of the competition
+     */
+    private static final int MEMBERS = 10000;
+    private static final int BILLS = 200000;
+
+    @Param({"legacy", "splittable", "l64x128"})
+    public String random;
+
+    @Param({"L", "R"})
+    public String type;
+
+    @Param({"1000", "100000", "1000000"})
+    public int entries;
+
+    private Path dir;
+    private Runnable draw;
+
+    @Setup
+    public void setUp() throws IOException {
+        Workloads.useRandom(random);
+        this.dir = Workloads.dataDir(MEMBERS, BILLS);
+        this.draw = Workloads.get("drawWinners", dir.resolve(SyntheticData.MEMBER_FILE).toString(),
+                dir.resolve(SyntheticData.BILL_FILE).toString(), type, entries);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Workloads.delete(dir);
+    }
+
+    @Benchmark
+    public void drawWinners() {
+        draw.run();
+    }
+}
@@ -0,0 +1,76 @@
+package simplecompetitions.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The EntriesBenchmark class measures adding a large batch of auto entries to a
+ * LuckyNumbersCompetition, which is filled in parallel, with every random number generator of
+ * RandomProvider in Testing and Normal mode, counting the duplicate picks of such a batch and
+ * estimating the prizes of its next draw.
+ *
+ * @see Workloads
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class EntriesBenchmark {
+    /*
+    @param random     random number generator of RandomProvider
+    @param mode       mode of the competition
+    @param entries    number of auto entries of the batch
+    @param addEntries adds the batch to a new competition
+    @param duplicates counts the duplicate picks of a competition with the batch
+    @param liability  estimates the prizes of a competition with the batch
+     */
+    @Param({"legacy", "splittable", "l64x128"})
+    public String random;
+
+    @Param({"T", "N"})
+    public String mode;
+
+    @Param({"1000000"})
+    public int entries;
+
+    private Runnable addEntries;
+    private IntSupplier duplicates;
+    private LongSupplier liability;
+
+    @Setup
+    public void setUp() {
+        Workloads.useRandom(random);
+        this.addEntries = Workloads.get("autoEntries", entries, mode);
+        this.duplicates = Workloads.get("duplicatePicks", entries);
+        this.liability = Workloads.get("estimateLiability", entries);
+    }
+
+    @Benchmark
+    public void addAutoEntries() {
+        addEntries.run();
+    }
+
+    @Benchmark
+    public int countDuplicatePicks() {
+        return duplicates.getAsInt();
+    }
+
+    @Benchmark
+    public long estimateLiability() {
+        return liability.getAsLong();
+    }
+}
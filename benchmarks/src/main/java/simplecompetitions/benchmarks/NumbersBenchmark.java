@@ -0,0 +1,105 @@
+package simplecompetitions.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongSupplier;
+import java.util.function.LongToIntFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The NumbersBenchmark class measures the work done for every single entry of a
+ * LuckyNumbersCompetition: creating the numbers of an auto entry (AutoNumbersEntry.createNumbers),
+ * working out the prize of an entry (LuckyNumbersCompetition.prize) and converting its numbers to
+ * and from their CombinationCodec rank.
+ *
+ * @see Workloads
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumbersBenchmark {
+    /*
+    @param MASKS        constant represents number of entry bitmasks the prize is worked out for
+
+    @param seededNumbers creates the numbers of an auto entry in Testing mode
+    @param randomNumbers creates the numbers of an auto entry in Normal mode
+    @param prize         works out the prize of an entry
+    @param rank          converts a numbers bitmask into its rank
+    @param unrank        converts a rank into its numbers bitmask
+    @param masks         random entry bitmasks
+    @param ranks         ranks of the entry bitmasks
+    @param next          position of the next entry bitmask in masks
+     */
+    private static final int MASKS = 1 << 10;
+
+    private LongSupplier seededNumbers;
+    private LongSupplier randomNumbers;
+    private LongBinaryOperator prize;
+    private LongToIntFunction rank;
+    private IntToLongFunction unrank;
+    private long[] masks;
+    private int[] ranks;
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        this.seededNumbers = Workloads.get("autoNumbers", true);
+        this.randomNumbers = Workloads.get("autoNumbers", false);
+        this.prize = Workloads.get("prize");
+        this.rank = Workloads.get("rank");
+        this.unrank = Workloads.get("unrank");
+        this.masks = new long[MASKS];
+        this.ranks = new int[MASKS];
+        LongSupplier numbers = Workloads.get("autoNumbers", false);
+        for (int i = 0; i < MASKS; i++) {
+            masks[i] = numbers.getAsLong();
+            ranks[i] = rank.applyAsInt(masks[i]);
+        }
+    }
+
+    @Benchmark
+    public long createNumbersSeeded() {
+        return seededNumbers.getAsLong();
+    }
+
+    @Benchmark
+    public long createNumbersRandom() {
+        return randomNumbers.getAsLong();
+    }
+
+    @Benchmark
+    public long prize() {
+        //compare neighbouring masks so the shared numbers change from call to call
+        int i = next;
+        next = (i + 1) & (MASKS - 1);
+        return prize.applyAsLong(masks[i], masks[next]);
+    }
+
+    @Benchmark
+    public int rank() {
+        int i = next;
+        next = (i + 1) & (MASKS - 1);
+        return rank.applyAsInt(masks[i]);
+    }
+
+    @Benchmark
+    public long unrank() {
+        int i = next;
+        next = (i + 1) & (MASKS - 1);
+        return unrank.applyAsLong(ranks[i]);
+    }
+}
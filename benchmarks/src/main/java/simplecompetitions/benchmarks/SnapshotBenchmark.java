@@ -0,0 +1,73 @@
+package simplecompetitions.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The SnapshotBenchmark class measures saving SimpleCompetitions into a snapshot file and
+ * reading it back, with one active LuckyNumbersCompetition and one active RandomPickCompetition
+ * of the same number of entries.
+ *
+ * @see Workloads
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class SnapshotBenchmark {
+    /*
+    @param entries number of entries of each competition
+    @param dir     directory of the snapshot files
+    @param save    saves the competitions
+    @param load    reads the competitions back
+     */
+    @Param({"1000", "100000", "1000000"})
+    public int entries;
+
+    private Path dir;
+    private Runnable save;
+    private Supplier<Object> load;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("simplecompetitions-bench");
+        this.save = Workloads.get("saveSnapshot", dir.resolve("save.dat").toString(), entries);
+        //the file read back is saved once and never changed by save
+        Runnable saveLoaded = Workloads.get("saveSnapshot", dir.resolve("load.dat").toString(),
+                entries);
+        saveLoaded.run();
+        this.load = Workloads.get("loadSnapshot", dir.resolve("load.dat").toString());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Workloads.delete(dir);
+    }
+
+    @Benchmark
+    public void save() {
+        save.run();
+    }
+
+    @Benchmark
+    public Object load() {
+        return load.get();
+    }
+}
@@ -0,0 +1,85 @@
+package simplecompetitions.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * The SyntheticData class generates a member file and a bill file in the format of members.csv
+ * and bills.csv. The rows only depend on the sizes and the seed, so every run of a benchmark
+ * loads the same data without any file from outside the repository.
+ * 1.members have the IDs 100000, 100001, ... and a name and email made from their ID.
+ * 2.bills have the IDs 000000, 000001, ..., a random member and a random amount from $50.0 to
+ *   $999.9 (one to nineteen entries), and none of them has been used.
+ *
+ * @see DataProviderBenchmark
+ */
+public class SyntheticData {
+    /*
+    @param FIRST_MEMBER constant represents Member ID of the first member
+    @param MAX_MEMBERS  constant represents most members with a 6 digit Member ID
+    @param MAX_BILLS    constant represents most bills with a 6 digit Bill ID
+    @param MEMBER_FILE  constant represents name of the generated member file
+    @param BILL_FILE    constant represents name of the generated bill file
+     */
+    private static final int FIRST_MEMBER = 100000;
+    private static final int MAX_MEMBERS = 900000;
+    private static final int MAX_BILLS = 1000000;
+    public static final String MEMBER_FILE = "members.csv";
+    public static final String BILL_FILE = "bills.csv";
+
+    /**
+     * This method writes a member file and a bill file into a directory.
+     *
+     * @param dir directory of the files, which must exist
+     * @param members number of members (1 to 900000)
+     * @param bills number of bills (0 to 1000000)
+     * @param seed seed of the random members and amounts of the bills
+     * @exception IOException files cannot be written
+     */
+    public static void write(Path dir, int members, int bills, long seed) throws IOException {
+        if (members < 1 || members > MAX_MEMBERS || bills < 0 || bills > MAX_BILLS) {
+            throw new IllegalArgumentException("Too many members or bills.");
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(dir.resolve(MEMBER_FILE),
+                StandardCharsets.UTF_8)) {
+            for (int i = 0; i < members; i++) {
+                int id = FIRST_MEMBER + i;
+                writer.write(id + ",Member" + id + ",member" + id + "@abc.com\n");
+            }
+        }
+
+        Random random = new Random(seed);
+        try (BufferedWriter writer = Files.newBufferedWriter(dir.resolve(BILL_FILE),
+                StandardCharsets.UTF_8)) {
+            for (int i = 0; i < bills; i++) {
+                int memberId = FIRST_MEMBER + random.nextInt(members);
+                int cents = 500 + random.nextInt(9500); //tenths of a dollar
+                writer.write(String.format("%06d,%d,%d.%d,false\n", i, memberId, cents / 10,
+                        cents % 10));
+            }
+        }
+    }
+
+    /**
+     * Main program which generates the files for use outside the benchmarks.
+     * Usage: SyntheticData dir members bills [seed]
+     *
+     * @param args main program arguments
+     * @exception IOException files cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: SyntheticData dir members bills [seed]");
+            return;
+        }
+        Path dir = Paths.get(args[0]);
+        Files.createDirectories(dir);
+        SyntheticData.write(dir, Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                args.length > 3 ? Long.parseLong(args[3]) : 42L);
+    }
+}
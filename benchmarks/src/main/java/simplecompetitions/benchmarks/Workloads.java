@@ -0,0 +1,96 @@
+package simplecompetitions.benchmarks;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * The Workloads class gives the benchmarks the workloads prepared by BenchmarkWorkloads. The
+ * classes of SimpleCompetitions are in the default package, which a class in a named package
+ * cannot import and which JMH does not accept for benchmark classes. So BenchmarkWorkloads (in the
+ * default package) builds the workloads as java.util.function objects and the benchmarks look them
+ * up here once, in their setup; the measured calls themselves do not go through reflection.
+ *
+ * @see SyntheticData
+ */
+final class Workloads {
+    /*
+    @param WORKLOADS       constant represents name of the class which prepares the workloads
+    @param RANDOM_PROPERTY constant represents system property read by RandomProvider
+     */
+    private static final String WORKLOADS = "BenchmarkWorkloads";
+    private static final String RANDOM_PROPERTY = "simplecompetitions.random";
+
+    private Workloads() {
+    }
+
+    /**
+     * This method prepares a workload by calling a static method of BenchmarkWorkloads.
+     *
+     * @param name name of the method
+     * @param args arguments of the method
+     * @param <T> type of the workload
+     * @return the workload
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T get(String name, Object... args) {
+        try {
+            for (Method method : Class.forName(WORKLOADS).getMethods()) {
+                if (method.getName().equals(name) && method.getParameterCount() == args.length) {
+                    return (T) method.invoke(null, args);
+                }
+            }
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Workload " + name + " cannot be prepared.",
+                    e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Workload " + name + " cannot be prepared.", e);
+        }
+        throw new IllegalArgumentException("There is no workload " + name + ".");
+    }
+
+    /**
+     * This method chooses the random number generator of RandomProvider. Every set of parameters
+     * runs in a JVM of its own, so it must be called in the setup before any workload is prepared.
+     *
+     * @param random legacy, splittable or l64x128
+     */
+    static void useRandom(String random) {
+        System.setProperty(RANDOM_PROPERTY, random);
+    }
+
+    /**
+     * This method creates a directory with synthetic member and bill files.
+     *
+     * @param members number of members
+     * @param bills number of bills
+     * @return the new directory
+     * @exception IOException files cannot be written
+     */
+    static Path dataDir(int members, int bills) throws IOException {
+        Path dir = Files.createTempDirectory("simplecompetitions-bench");
+        SyntheticData.write(dir, members, bills, 42L);
+        return dir;
+    }
+
+    /**
+     * This method deletes a directory made by dataDir and everything in it.
+     *
+     * @param dir directory to delete, or null
+     * @exception IOException files cannot be deleted
+     */
+    static void delete(Path dir) throws IOException {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}